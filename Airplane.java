@@ -0,0 +1,88 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        Airplane
+//Description:  This class defines the object Airplane as containing an airline,
+//              a flight number, an arrival time, and the minute its fuel runs
+//              out (its deadline). The fuel left at any time is the deadline
+//              minus the clock. It has a compareTo method, and its deadline is
+//              its IntKeyed priority key.
+public class Airplane implements Comparable<Object>, IntKeyed {
+
+    static final String[] AIRLINES = {"United", "Southwest", "Northwest",
+        "Continental", "American", "Frontier", "Alaska", "Lufthansa"};
+
+    String airline;
+    byte airlineCode;
+    int flightNum;
+    int arrival;
+    int deadline;
+
+    public Airplane(RandomSource random, int arrival) {
+        this(random, arrival, 1, 20);
+    }
+//******************************************************************************
+
+    //Parameters:   RandomSource random     draws airline, flight and fuel
+    //              int arrival             the minute the plane arrives
+    //              int minFuel, maxFuel    the range fuel is drawn from
+    public Airplane(RandomSource random, int arrival, int minFuel, int maxFuel) {
+        airlineCode = (byte) random.nextInt(AIRLINES.length);
+        airline = AIRLINES[airlineCode];
+        flightNum = random.nextInt(9000) + 1000;
+        this.arrival = arrival;
+        deadline = arrival + random.nextInt(maxFuel - minFuel + 1) + minFuel;
+    }
+//******************************************************************************
+
+    public Airplane(int airlineCode, int flightNum, int arrival, int fuel) {
+        this.airlineCode = (byte) airlineCode;
+        this.airline = AIRLINES[airlineCode];
+        this.flightNum = flightNum;
+        this.arrival = arrival;
+        this.deadline = arrival + fuel;
+    }
+//******************************************************************************
+
+    //Method:       fuelLeft
+    //Description:  This method returns the minutes of fuel left at a time.
+    //Parameters:   int clock
+    //Returns:      int
+    //Calls:        nothing
+    //Globals:      none
+    public int fuelLeft(int clock) {
+        return deadline - clock;
+    }
+//******************************************************************************
+//******************************************************************************
+
+    @Override
+    public int priorityKey() {
+        return deadline;
+    }
+//******************************************************************************
+
+    //Method:       compareTo
+    //Description:  This method compares the fuel remaining in different 
+    //              Airplane objects and overrides the general compareTo method.
+    //              Comparing deadlines orders planes the same way as comparing
+    //              fuel left at any one time.
+    //Parameters:   Object o
+    //Returns:      int
+    //Calls:        nothing
+    //Globals:      none
+    @Override
+    public int compareTo(Object o) {
+        Airplane plane = (Airplane) o;
+        int firstInt = this.deadline;
+        int secondInt = plane.deadline;
+        if (firstInt == secondInt) {
+            return 0;
+        } else if (firstInt < secondInt) {
+            return -1;
+        } else {
+            return 1;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -14,32 +14,150 @@
 //******************************************************************************
 //Class:        AirportSimulator
 //Description:  This is the main class for the program. It contains the main  
-//              method and other methods with operations.
+//              method and other methods with operations. Each instance holds
+//              the state of one independent simulation, so several can run in
+//              the same program at once.
 
 public class AirportSimulator {
 
-    static int clock = 0;
-    static QueueInterface planeQueue = new PriorityQueue();
-    static int timeSinceLanding = 2;
+    int clock = 0;
+    IntKeyedQueue<Airplane> planeQueue;
+    int landingSeparation = 2;
+    int[] nextLandingTime = new int[1];
+    EventSink events = new ConsoleEventSink();
+    SimulationStats stats = new SimulationStats();
+    RandomSource random;
+
+    private static final ArrivalSource NO_ARRIVALS = new ArrivalSource() {
+        @Override
+        public int nextArrivalTime() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public Airplane nextArrival() {
+            return null;
+        }
+    };
+//******************************************************************************
+
+    public AirportSimulator() {
+        this(new PriorityQueue(), new SplitMixRandom(System.nanoTime()));
+    }
+//******************************************************************************
+
+    public AirportSimulator(QueueInterface planeQueue, RandomSource random) {
+        this(new QueueAdapter<Airplane>(planeQueue), random);
+    }
+//******************************************************************************
+
+    public AirportSimulator(IntKeyedQueue<Airplane> planeQueue,
+            RandomSource random) {
+        this.planeQueue = planeQueue;
+        this.random = random;
+    }
 //******************************************************************************
 //******************************************************************************
     //Method:       main
     //Description:  This is the main method, which gets inputs from the user and
-    //              calls all other methods. It loops until the user ends it.
+    //              calls all other methods. It loops until the user ends it
+    //              with X or the input runs out, which is treated as X.
+    //              With --script=<file> (or --script=- for standard input) the
+    //              commands are read from a CommandScript instead.
+    //              --restore=<file> starts from a saved Checkpoint, and
+    //              --checkpoint=<file> saves one when the session ends.
+    //              --policy=<name> picks the LandingPolicy (see
+    //              createLandingPolicy).
     //Parameters:   None
     //Returns:      Nothing
-    //Calls:        timePasses()
-    //              priorityEnqueue()
-    //              display()
-    //              enqueue()
-    //              dequeue()
+    //Calls:        execute()
     //              getCharacter()
-    //Globals:      clock               keeps track of the time since the start 
+    //              CommandScript.open()
+    //              CommandScript.run()
+    //              Checkpoint.restore()
+    //              Checkpoint.save()
+    //              createPlaneQueue()
+    //              createEventSink()
+    //              BatchSimulation.main()
+    //Globals:      none
+    //Fields:       clock               keeps track of the time since the start 
     //                                  of the program
     //              planeQueue          the priority queue containing the planes
-    //              timeSinceLanding    regulates planes landing every 2 min
+    //              landingSeparation   minutes between landings (2)
+    //              nextLandingTime     regulates planes landing every 2 min,
+    //                                  one entry per runway (--runways=N)
+    //              events              where arrivals, landings and crashes
+    //                                  are reported (--log=console, async or
+    //                                  none, plus --trace=<file> for a
+    //                                  binary trace and --metrics=<seconds>
+    //                                  for JMX metrics)
+    //              stats               running totals for the batch summary
+    //              random              source of every new plane's details;
+    //                                  --seed=N makes a run repeatable
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        for (String arg : args) {
+            if (arg.equals("--batch")) {
+                BatchSimulation.main(args);
+                return;
+            }
+        }
+        AirportSimulator sim = new AirportSimulator();
+        String log = "console";
+        String trace = null;
+        int metricsSeconds = -1;
+        String script = null;
+        String restore = null;
+        String checkpoint = null;
+        String queue = null;
+        String policy = "fuel";
+        for (String arg : args) {
+            if (arg.startsWith("--queue=")) {
+                queue = arg.substring("--queue=".length());
+            } else if (arg.startsWith("--policy=")) {
+                policy = arg.substring("--policy=".length());
+            } else if (arg.startsWith("--log=")) {
+                log = arg.substring("--log=".length());
+            } else if (arg.startsWith("--trace=")) {
+                trace = arg.substring("--trace=".length());
+            } else if (arg.startsWith("--metrics=")) {
+                metricsSeconds = Integer.parseInt(
+                        arg.substring("--metrics=".length()));
+            } else if (arg.startsWith("--runways=")) {
+                sim.setRunways(Integer.parseInt(
+                        arg.substring("--runways=".length())));
+            } else if (arg.startsWith("--seed=")) {
+                sim.random = new SplitMixRandom(
+                        Long.parseLong(arg.substring("--seed=".length())));
+            } else if (arg.startsWith("--script=")) {
+                script = arg.substring("--script=".length());
+            } else if (arg.startsWith("--restore=")) {
+                restore = arg.substring("--restore=".length());
+            } else if (arg.startsWith("--checkpoint=")) {
+                checkpoint = arg.substring("--checkpoint=".length());
+            }
+        }
+        if (queue != null || !policy.equals("fuel")) {
+            sim.planeQueue = createPlaneQueue((queue == null) ? "list" : queue,
+                    policy);
+        }
+        try {
+            if (restore != null) {
+                Checkpoint.restore(Checkpoint.load(
+                        java.nio.file.Paths.get(restore)), sim);
+            }
+            sim.events = createEventSink(log, trace, metricsSeconds, sim.clock,
+                    sim.planeQueue.size());
+            if (script != null) {
+                try (CommandScript commands = CommandScript.open(script, sim)) {
+                    commands.run();
+                }
+                sim.finish(checkpoint);
+                return;
+            }
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
         KeyboardInputClass keyboardInput = new KeyboardInputClass();
         System.out.println("Airport Simulation Program: Michael Megginson\n"
                 + "---------------------------------------------\n"
@@ -51,155 +169,571 @@ public class AirportSimulator {
         while (true) {
             char input = keyboardInput.getCharacter(true, 'D', "PSX", 1,
                     "\nNext Action:");
-            switch (input) {
-                case 'D':
-                    timePasses();
-                    clock++;
-                    break;
-                case 'P':
-                    Airplane newPlane = new Airplane();
-                    planeQueue.priorityEnqueue(newPlane);
-                    System.out.println(newPlane.airline + " flight "
-                            + newPlane.flightNum + " arrives at "
-                            + newPlane.arrival + " minutes with "
-                            + newPlane.fuelLeft + " minutes of fuel left");
+            if (input == 'X' || keyboardInput.atEndOfInput()) {
+                try {
+                    sim.finish(checkpoint);
+                } catch (java.io.IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+                System.exit(0);
+            }
+            sim.execute(input, 1);
+        }
+    }
+ //**************************************************************************
+
+    //Method:       finish
+    //Description:  This method ends an interactive or scripted session: it
+    //              saves a checkpoint if a path is given and closes the event
+    //              sink.
+    //Parameters:   String checkpoint   file to save the state to, or null
+    //Returns:      nothing
+    //Calls:        Checkpoint.save()
+    //              close()
+    //Fields:       events
+    void finish(String checkpoint) throws java.io.IOException {
+        if (checkpoint != null) {
+            Checkpoint.save(this, java.nio.file.Paths.get(checkpoint));
+        }
+        events.close();
+    }
+ //**************************************************************************
+
+    //Method:       execute
+    //Description:  This method carries out one of the simulation commands
+    //              count times: 'D' lets a minute pass, 'P' adds an arrival and
+    //              lets a minute pass, and 'S' shows the holding pattern. A run
+    //              of 'D's is simulated with runUntil, which skips the minutes
+    //              in which nothing can happen and gives the same result as
+    //              ticking through them. In the list queue 'S' also reverses
+    //              planes with equal fuel, as the original rebuild did (see
+    //              baselineList).
+    //Parameters:   char command    'D', 'P' or 'S'
+    //              int count       times to repeat it
+    //Returns:      nothing
+    //Calls:        runUntil()
+    //              arrive()
+    //              timePasses()
+    //              baselineList()
+    //              reverseTies()
+    //              onHolding()
+    //Fields:       clock
+    //              planeQueue
+    //              random
+    //              events
+    public void execute(char command, int count) {
+        switch (command) {
+            case 'D':
+                runUntil(NO_ARRIVALS, clock + count);
+                break;
+            case 'P':
+                for (int i = 0; i < count; i++) {
+                    arrive(new Airplane(random, clock));
                     timePasses();
                     clock++;
-                    break;
-                case 'S':
-                    QueueInterface holdingQueue = new PriorityQueue();
-                    while (!planeQueue.isEmpty()) {
-                        Airplane p = (Airplane) planeQueue.dequeue();
-                        p.display();
-                        holdingQueue.enqueue(p);
+                }
+                break;
+            case 'S':
+                PriorityQueue list = baselineList();
+                for (int i = 0; i < count; i++) {
+                    boolean reversed = (clock & 1) != 0;
+                    if (list != null && reversed) {
+                        list.reverseTies();
                     }
-                    while (!holdingQueue.isEmpty()) {
-                        planeQueue.priorityEnqueue((Comparable) holdingQueue.dequeue());
+                    for (Airplane plane : planeQueue) {
+                        events.onHolding(clock, plane.airlineCode,
+                                plane.flightNum, plane.fuelLeft(clock),
+                                clock - plane.arrival);
                     }
-                    break;
-                case 'X':
-                    System.exit(0);
-            }
+                    if (list != null && !reversed) {
+                        list.reverseTies();
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
         }
     }
  //**************************************************************************
 
-    //Method:       timePasses
-    //Description:  This method simulates all the things that happens while one
-    //              minute passes, including incrementing the clock, decrementing
-    //              each planes fuel remaining, and planes landing and crashing.
-    //Parameters:   none
+    //Method:       setRunways
+    //Description:  This method sets the number of runways. Each runway has its
+    //              own separation timer and all of them land planes from the
+    //              one holding pattern.
+    //Parameters:   int runways
     //Returns:      nothing
+    //Calls:        nothing
+    //Fields:       nextLandingTime
+    public void setRunways(int runways) {
+        if (runways < 1) {
+            throw new IllegalArgumentException("An airport needs a runway");
+        }
+        nextLandingTime = new int[runways];
+    }
+ //**************************************************************************
+
+    //Method:       earliestLandingTime
+    //Description:  This method returns the first minute any runway is free.
+    //Parameters:   none
+    //Returns:      int
+    //Calls:        nothing
+    //Fields:       nextLandingTime
+    int earliestLandingTime() {
+        int earliest = nextLandingTime[0];
+        for (int runway = 1; runway < nextLandingTime.length; runway++) {
+            earliest = Math.min(earliest, nextLandingTime[runway]);
+        }
+        return earliest;
+    }
+ //**************************************************************************
+
+    //Method:       createQueue
+    //Description:  This method builds the holding-pattern queue named on the
+    //              command line: "list" is the linked-list PriorityQueue,
+    //              "heap" is the array-based HeapPriorityQueue, "calendar" is
+    //              the CalendarQueue bucketed by fuel-exhaustion minute, and
+    //              "concurrent" is the thread-safe ConcurrentPriorityQueue.
+    //Parameters:   String kind
+    //Returns:      QueueInterface
     //Calls:        PriorityQueue()
-    //              isEmpty()
-    //              dequeue()
-    //              priorityEnqueue()
-    //              enqueue()
+    //              HeapPriorityQueue()
+    //              CalendarQueue()
+    //              ConcurrentPriorityQueue()
     //Globals:      none
-    public static void timePasses() {
-        QueueInterface holdingQueue = new PriorityQueue();
-        timeSinceLanding++;
-        if (timeSinceLanding > 1 && !planeQueue.isEmpty()) {
-            Airplane p = (Airplane) planeQueue.dequeue();
-            System.out.println(p.airline + " flight "
-                    + p.flightNum + " lands with "
-                    + p.fuelLeft + " minutes of fuel left after waiting "
-                    + (clock - p.arrival) + " min(s)");
-            timeSinceLanding = 0;
-        }
-        while (!planeQueue.isEmpty()) {
-            Airplane p = (Airplane) planeQueue.dequeue();
-            p.fuelLeft--;
-            holdingQueue.enqueue(p);
-            if (p.fuelLeft == -1) {
-                System.out.println("\n" + p.airline + " flight "
-                        + p.flightNum + " CRASHES after waiting "
-                        + (clock - p.arrival) + " min(s)");
-                holdingQueue.dequeue();
-            }
+    static QueueInterface createQueue(String kind) {
+        switch (kind) {
+            case "list":
+                return new PriorityQueue();
+            case "heap":
+                return new HeapPriorityQueue();
+            case "calendar":
+                return new CalendarQueue();
+            case "concurrent":
+                return new ConcurrentPriorityQueue();
+            default:
+                throw new IllegalArgumentException("Unknown queue type: " + kind);
         }
-        while (!holdingQueue.isEmpty()) {
-            planeQueue.priorityEnqueue((Comparable) holdingQueue.dequeue());
+    }
+ //**************************************************************************
+
+    //Method:       createPlaneQueue
+    //Description:  This method builds the simulator's holding-pattern queue:
+    //              "intheap" is an IntKeyedHeap keyed by deadline, "indexed"
+    //              is one that can also find planes by flight number (needed
+    //              by divert and declareEmergency), and any
+    //              name createQueue accepts is that queue behind a
+    //              QueueAdapter.
+    //Parameters:   String kind
+    //Returns:      IntKeyedQueue<Airplane>
+    //Calls:        IntKeyedHeap()
+    //              createQueue()
+    //              QueueAdapter()
+    //Globals:      none
+    static IntKeyedQueue<Airplane> createPlaneQueue(String kind) {
+        switch (kind) {
+            case "intheap":
+                return new IntKeyedHeap<>();
+            case "indexed":
+                return new IntKeyedHeap<Airplane>(plane -> plane.flightNum);
+            default:
+                return new QueueAdapter<>(createQueue(kind));
         }
     }
-}
-//******************************************************************************
+ //**************************************************************************
 
-//Class:        Airplane
-//Description:  This class defines the object Airplane as containing an airline,
-//              a flight number, an amount of fuel left, and an arrival time. It
-//              has a display method and a compareTo method.
-class Airplane implements Comparable<Object> {
+    //Method:       createPlaneQueue
+    //Description:  This method builds the holding-pattern queue for a landing
+    //              policy. "fuel", the original rule, uses the queue named by
+    //              kind; any other policy needs a HoldingPattern, which keeps
+    //              its own heaps, so kind is not used. A HoldingPattern finds
+    //              planes by flight number as "indexed" does.
+    //Parameters:   String kind, String policy
+    //Returns:      IntKeyedQueue<Airplane>
+    //Calls:        createPlaneQueue()
+    //              createLandingPolicy()
+    //              HoldingPattern()
+    //Globals:      none
+    static IntKeyedQueue<Airplane> createPlaneQueue(String kind, String policy) {
+        if (policy.equals("fuel")) {
+            return createPlaneQueue(kind);
+        }
+        return new HoldingPattern(createLandingPolicy(policy));
+    }
+ //**************************************************************************
+
+    //Method:       createLandingPolicy
+    //Description:  This method builds the landing policy named on the command
+    //              line: "fuel" is LowestFuelFirst, "fifo" (or "wait") is
+    //              LongestWaitFirst, and "lookahead" is CrashLookAhead.
+    //Parameters:   String kind
+    //Returns:      LandingPolicy
+    //Calls:        LowestFuelFirst()
+    //              LongestWaitFirst()
+    //              CrashLookAhead()
+    //Globals:      none
+    static LandingPolicy createLandingPolicy(String kind) {
+        switch (kind) {
+            case "fuel":
+                return new LowestFuelFirst();
+            case "fifo":
+            case "wait":
+                return new LongestWaitFirst();
+            case "lookahead":
+                return new CrashLookAhead();
+            default:
+                throw new IllegalArgumentException("Unknown landing policy: "
+                        + kind);
+        }
+    }
+ //**************************************************************************
 
-    String airline;
-    int flightNum;
-    int fuelLeft;
-    int arrival;
+    //Method:       createEventSink
+    //Description:  This method builds the event sink named on the command
+    //              line: "console" prints each event as it happens, "async"
+    //              prints the same text from a background thread, and "none"
+    //              prints nothing.
+    //Parameters:   String kind
+    //Returns:      EventSink
+    //Calls:        ConsoleEventSink()
+    //              AsyncEventSink()
+    //Globals:      none
+    static EventSink createEventSink(String kind) {
+        switch (kind) {
+            case "console":
+                return new ConsoleEventSink();
+            case "async":
+                return new AsyncEventSink(System.out);
+            case "none":
+                return NullEventSink.INSTANCE;
+            default:
+                throw new IllegalArgumentException("Unknown log type: " + kind);
+        }
+    }
+ //**************************************************************************
 
-    public Airplane() {
-        switch ((int) (Math.random() * 8)) {
+    //Method:       createEventSink
+    //Description:  This method builds the log sink and adds a TraceWriter if
+    //              a trace file is named and live SimulationMetrics if
+    //              metricsSeconds is not negative.
+    //Parameters:   String log              log kind for createEventSink(String)
+    //              String trace            trace file path, or null
+    //              int metricsSeconds      seconds between metrics snapshot
+    //                                      lines (0 for JMX only, negative
+    //                                      for no metrics)
+    //              int clock               the simulation clock now
+    //              int holding             planes already holding
+    //Returns:      EventSink
+    //Calls:        createEventSink()
+    //              TraceWriter()
+    //              SimulationMetrics.start()
+    //              TeeEventSink()
+    //Globals:      none
+    static EventSink createEventSink(String log, String trace,
+            int metricsSeconds, int clock, int holding) {
+        java.util.List<EventSink> sinks = new java.util.ArrayList<>();
+        EventSink events = createEventSink(log);
+        if (events != NullEventSink.INSTANCE) {
+            sinks.add(events);
+        }
+        if (trace != null) {
+            try {
+                sinks.add(new TraceWriter(java.nio.file.Paths.get(trace)));
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
+        if (metricsSeconds >= 0) {
+            sinks.add(SimulationMetrics.start(metricsSeconds, clock,
+                    holding));
+        }
+        switch (sinks.size()) {
             case 0:
-                airline = "United";
-                break;
+                return NullEventSink.INSTANCE;
             case 1:
-                airline = "Southwest";
-                break;
-            case 2:
-                airline = "Northwest";
-                break;
-            case 3:
-                airline = "Continental";
-                break;
-            case 4:
-                airline = "American";
-                break;
-            case 5:
-                airline = "Frontier";
-                break;
-            case 6:
-                airline = "Alaska";
-                break;
-            case 7:
-                airline = "Lufthansa";
+                return sinks.get(0);
+            default:
+                return new TeeEventSink(sinks.toArray(new EventSink[0]));
         }
-        flightNum = ((int) (Math.random() * 9000) + 1000);
-        fuelLeft = (((int) (Math.random() * 20)) + 1);
-        arrival = AirportSimulator.clock;
     }
-//******************************************************************************
-//******************************************************************************
+ //**************************************************************************
+
+    //Method:       arrive
+    //Description:  This method puts a newly arrived plane into the holding
+    //              pattern and announces it.
+    //Parameters:   Airplane newPlane
+    //Returns:      nothing
+    //Calls:        baselineList()
+    //              priorityEnqueueLast()
+    //              priorityEnqueue()
+    //              fuelLeft()
+    //Fields:       clock
+    //              planeQueue
+    //              events
+    //              stats
+    public void arrive(Airplane newPlane) {
+        PriorityQueue list = baselineList();
+        if (list != null && (clock & 1) != 0) {
+            list.priorityEnqueueLast(newPlane);
+        } else {
+            planeQueue.priorityEnqueue(newPlane, newPlane.deadline);
+        }
+        stats.recordArrival();
+        events.onArrival(clock, newPlane.airlineCode, newPlane.flightNum,
+                newPlane.fuelLeft(clock));
+    }
+ //**************************************************************************
+
+    //Method:       divert
+    //Description:  This method sends a holding plane to another airport. If
+    //              several holding planes share the flight number, the one
+    //              that would land first goes.
+    //Parameters:   int flightNum
+    //Returns:      boolean (false if no such plane is holding)
+    //Calls:        indexedQueue()
+    //              find()
+    //              remove()
+    //              recordHoldingDiversion()
+    //              onDiversion()
+    //Fields:       clock
+    //              planeQueue
+    //              events
+    //              stats
+    public boolean divert(int flightNum) {
+        IndexedQueue<Airplane> queue = indexedQueue();
+        int handle = queue.find(flightNum);
+        if (handle < 0) {
+            return false;
+        }
+        Airplane plane = queue.remove(handle);
+        stats.recordHoldingDiversion();
+        events.onDiversion(clock, plane.airlineCode, plane.flightNum,
+                plane.fuelLeft(clock), clock - plane.arrival);
+        return true;
+    }
+ //**************************************************************************
+
+    //Method:       declareEmergency
+    //Description:  This method handles a fuel emergency: the plane reports
+    //              less fuel than it arrived with, so its deadline moves
+    //              earlier and it moves up the holding pattern. A plane
+    //              cannot gain fuel while it holds, so more fuel than it has
+    //              left is an IllegalArgumentException.
+    //Parameters:   int flightNum
+    //              int fuelLeft    the plane's fuel as of now, in minutes
+    //Returns:      boolean (false if no such plane is holding)
+    //Calls:        indexedQueue()
+    //              find()
+    //              get()
+    //              updatePriority()
+    //              onEmergency()
+    //Fields:       clock
+    //              planeQueue
+    //              events
+    public boolean declareEmergency(int flightNum, int fuelLeft) {
+        IndexedQueue<Airplane> queue = indexedQueue();
+        int handle = queue.find(flightNum);
+        if (handle < 0) {
+            return false;
+        }
+        Airplane plane = queue.get(handle);
+        if (fuelLeft > plane.fuelLeft(clock)) {
+            throw new IllegalArgumentException("Flight " + flightNum
+                    + " has only " + plane.fuelLeft(clock)
+                    + " minutes of fuel left, not " + fuelLeft);
+        }
+        plane.deadline = clock + fuelLeft;
+        queue.updatePriority(handle, plane.deadline);
+        events.onEmergency(clock, plane.airlineCode, plane.flightNum, fuelLeft,
+                clock - plane.arrival);
+        return true;
+    }
+ //**************************************************************************
+
+    private IndexedQueue<Airplane> indexedQueue() {
+        if (!(planeQueue instanceof IndexedQueue)
+                || !((IndexedQueue<Airplane>) planeQueue).canFind()) {
+            throw new UnsupportedOperationException("Finding a flight needs "
+                    + "--queue=indexed or a --policy other than fuel");
+        }
+        return (IndexedQueue<Airplane>) planeQueue;
+    }
+ //**************************************************************************
 
-    //Method:       display
-    //Description:  This method displays each element of an Airplane object.
+    //Method:       runUntil
+    //Description:  This method is a next-event version of the minute-by-minute
+    //              loop in main. The future-event list holds the three kinds of
+    //              event that can change the holding pattern: the next arrival,
+    //              the next free landing slot, and the earliest fuel exhaustion
+    //              (the front plane's deadline). Only one of each kind can be
+    //              pending, so the clock jumps straight to the smallest of the
+    //              three and that minute is simulated exactly as a tick would
+    //              be: arrivals first, then timePasses(). Minutes with no event
+    //              are skipped, so a run costs time proportional to events.
+    //              The clock is left at endTime. An arrival earlier than the
+    //              clock could never be taken and would hold back every one
+    //              after it, so it is an error.
+    //Parameters:   ArrivalSource arrivals  planes to arrive, in time order
+    //              int endTime             first minute not simulated
+    //Returns:      nothing
+    //Calls:        nextEventTime()
+    //              nextArrivalTime()
+    //              nextArrival()
+    //              arrive()
+    //              timePasses()
+    //Fields:       clock
+    public void runUntil(ArrivalSource arrivals, int endTime) {
+        int eventTime = nextEventTime(arrivals);
+        while (eventTime < endTime) {
+            clock = eventTime;
+            while (arrivals.nextArrivalTime() == clock) {
+                arrive(arrivals.nextArrival());
+            }
+            timePasses();
+            clock++;
+            eventTime = nextEventTime(arrivals);
+        }
+        clock = Math.max(clock, endTime);
+    }
+ //**************************************************************************
+
+    //Method:       nextEventTime
+    //Description:  This method returns the earliest minute, no earlier than
+    //              the clock, at which an arrival, a landing or a crash can
+    //              happen. Landings and crashes need a plane in the queue.
+    //              An arrival earlier than the clock throws
+    //              IllegalStateException.
+    //Parameters:   ArrivalSource arrivals
+    //Returns:      int (Integer.MAX_VALUE if nothing can happen)
+    //Calls:        nextArrivalTime()
+    //              isEmpty()
+    //              earliestLandingTime()
+    //              getFrontKey()
+    //Fields:       clock
+    //              planeQueue
+    //              nextLandingTime
+    private int nextEventTime(ArrivalSource arrivals) {
+        int eventTime = arrivals.nextArrivalTime();
+        if (eventTime < clock) {
+            throw new IllegalStateException("An arrival at minute " + eventTime
+                    + " is earlier than the clock (" + clock + ")");
+        }
+        if (!planeQueue.isEmpty()) {
+            eventTime = Math.min(eventTime, earliestLandingTime());
+            eventTime = Math.min(eventTime, planeQueue.getFrontKey());
+        }
+        return Math.max(eventTime, clock);
+    }
+ //**************************************************************************
+
+    //Method:       timePasses
+    //Description:  This method simulates all the things that happens while one
+    //              minute passes: a plane landing on each runway that is free
+    //              (in runway order), chosen by land(), and planes crashing
+    //              when they run out of fuel. Planes are queued by the minute
+    //              their fuel runs out, so only planes with equal fuel can
+    //              change places while they wait and only the front of the
+    //              queue has to be looked at for crashes. A plane whose fuel
+    //              runs out this minute has a deadline equal to the clock.
     //Parameters:   none
     //Returns:      nothing
-    //Calls:        nothing
-    //Globals:      none
-    public void display() {
-        System.out.println(airline + " flight " + flightNum + ": Fuel left="
-                + fuelLeft + "; Arrival time=" + arrival);
+    //Calls:        isEmpty()
+    //              land()
+    //              dequeueFront()
+    //              getFrontKey()
+    //              fuelLeft()
+    //Fields:       clock
+    //              planeQueue
+    //              landingSeparation
+    //              nextLandingTime
+    //              events
+    //              stats
+    public void timePasses() {
+        for (int runway = 0; runway < nextLandingTime.length; runway++) {
+            if (clock >= nextLandingTime[runway] && !planeQueue.isEmpty()) {
+                Airplane p = land(runway);
+                stats.recordLanding(clock - p.arrival);
+                events.onLanding(clock, p.airlineCode, p.flightNum,
+                        p.fuelLeft(clock), clock - p.arrival);
+                nextLandingTime[runway] = clock + landingSeparation;
+            }
+        }
+        while (planeQueue.getFrontKey() <= clock) {
+            Airplane p = dequeueFront();
+            stats.recordCrash();
+            events.onCrash(clock, p.airlineCode, p.flightNum,
+                    clock - p.arrival);
+        }
     }
-//******************************************************************************
+ //**************************************************************************
 
-    //Method:       compareTo
-    //Description:  This method compares the fuel remaining in different 
-    //              Airplane objects and overrides the general compareTo method.
-    //Parameters:   Object o
-    //Returns:      int
-    //Calls:        nothing
-    //Globals:      none
-    @Override
-    public int compareTo(Object o) {
-        Airplane plane = (Airplane) o;
-        int firstInt = this.fuelLeft;
-        int secondInt = plane.fuelLeft;
-        if (firstInt == secondInt) {
-            return 0;
-        } else if (firstInt < secondInt) {
-            return -1;
-        } else {
-            return 1;
+    //Method:       land
+    //Description:  This method takes the next plane to land out of the
+    //              holding pattern: the one its LandingPolicy chooses if the
+    //              queue is a HoldingPattern, otherwise the front plane, which
+    //              has the least fuel.
+    //Parameters:   int runway      the runway that is free
+    //Returns:      Airplane
+    //Calls:        land()
+    //              dequeueFront()
+    //Fields:       clock
+    //              planeQueue
+    //              landingSeparation
+    //              nextLandingTime
+    private Airplane land(int runway) {
+        if (planeQueue instanceof HoldingPattern) {
+            return ((HoldingPattern) planeQueue).land(clock, runway,
+                    nextLandingTime, landingSeparation);
         }
+        return dequeueFront();
+    }
+ //**************************************************************************
+
+    //Method:       dequeueFront
+    //Description:  This method takes the front plane out of the queue. In
+    //              the list queue at an odd minute that is the last of the
+    //              planes tied at the front (see baselineList).
+    //Parameters:   none
+    //Returns:      Airplane
+    //Calls:        baselineList()
+    //              dequeueLastTied()
+    //              dequeue()
+    //Fields:       clock
+    //              planeQueue
+    private Airplane dequeueFront() {
+        PriorityQueue list = baselineList();
+        if (list != null && (clock & 1) != 0) {
+            return (Airplane) list.dequeueLastTied();
+        }
+        return planeQueue.dequeue();
+    }
+ //**************************************************************************
+
+    //Method:       baselineList
+    //Description:  This method returns the PriorityQueue behind planeQueue if
+    //              it is the list queue, or null. The original program
+    //              rebuilt that list every minute, and again for 'S', by
+    //              putting each plane back in order, which reversed planes
+    //              with equal fuel each time. The list keeps that landing
+    //              order without the rebuild: it stays as the last 'S' left
+    //              it, and at an odd minute the planes with equal fuel are
+    //              read from the back. So an arrival at an odd minute goes
+    //              behind the planes it ties, and a plane lands or crashes
+    //              from the back of the planes tied at the front. Other
+    //              queues order ties their own way.
+    //Parameters:   none
+    //Returns:      PriorityQueue
+    //Calls:        getQueue()
+    //Fields:       planeQueue
+    private PriorityQueue baselineList() {
+        if (planeQueue instanceof QueueAdapter) {
+            QueueInterface queue = ((QueueAdapter<Airplane>) planeQueue)
+                    .getQueue();
+            if (queue instanceof PriorityQueue) {
+                return (PriorityQueue) queue;
+            }
+        }
+        return null;
     }
 }
 //******************************************************************************
+//******************************************************************************
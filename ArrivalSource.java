@@ -0,0 +1,9 @@
+//******************************************************************************
+//Interface:    ArrivalSource
+//Description:  A time-ordered stream of arriving planes for the next-event
+//              simulation loop. nextArrivalTime returns Integer.MAX_VALUE once
+//              no more planes will arrive.
+public interface ArrivalSource {
+    public int nextArrivalTime();
+    public Airplane nextArrival();
+}
@@ -0,0 +1,213 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        AsyncEventSink
+//Description:  This class is an EventSink that moves formatting and writing
+//              off the simulation thread. Each event is copied as a few ints
+//              into a bounded ring buffer; a background thread drains the ring
+//              in batches, formats the same text as ConsoleEventSink into a
+//              buffered writer and flushes when it catches up. The ring has
+//              one producer (the simulation) and one consumer, so the two
+//              sides only share two volatile counters. When the ring is full
+//              the simulation waits, so no event is lost. close must be
+//              called to drain the ring and stop the thread.
+public class AsyncEventSink implements EventSink {
+
+    private static final int ARRIVAL = 0;
+    private static final int LANDING = 1;
+    private static final int CRASH = 2;
+    private static final int HOLDING = 3;
+    private static final int DIVERSION = 4;
+    private static final int EMERGENCY = 5;
+    private static final int RECORD_INTS = 6;
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final int[] ring;
+    private final int mask;
+    private final java.io.Writer out;
+    private final Thread writer;
+    private volatile long head;
+    private volatile long tail;
+    private volatile boolean closed;
+    private long cachedTail;
+    private java.io.IOException failure;
+//******************************************************************************
+
+    public AsyncEventSink(java.io.OutputStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+//******************************************************************************
+
+    //Parameters:   OutputStream out    where the text goes
+    //              int capacity        events the ring holds (rounded up to a
+    //                                  power of two)
+    public AsyncEventSink(java.io.OutputStream out, int capacity) {
+        int records = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        ring = new int[records * RECORD_INTS];
+        mask = records - 1;
+        this.out = new java.io.BufferedWriter(
+                new java.io.OutputStreamWriter(out), 1 << 16);
+        writer = new Thread(this::drain, "event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+//******************************************************************************
+
+    @Override
+    public void onArrival(int clock, int airline, int flightNum, int fuelLeft) {
+        put(ARRIVAL, clock, airline, flightNum, fuelLeft, 0);
+    }
+//******************************************************************************
+
+    @Override
+    public void onLanding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        put(LANDING, clock, airline, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onCrash(int clock, int airline, int flightNum, int wait) {
+        put(CRASH, clock, airline, flightNum, 0, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onHolding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        put(HOLDING, clock, airline, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onDiversion(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        put(DIVERSION, clock, airline, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onEmergency(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        put(EMERGENCY, clock, airline, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    //Method:       close
+    //Description:  This method waits for the writer thread to drain the ring
+    //              and flush, then stops it.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        join()
+    //Globals:      none
+    @Override
+    public void close() {
+        closed = true;
+        java.util.concurrent.locks.LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Event log write failed", failure);
+        }
+    }
+//******************************************************************************
+
+    //Method:       put
+    //Description:  This method copies one event into the next free ring slot,
+    //              waiting while the ring is full, and then publishes it by
+    //              advancing head.
+    //Parameters:   int type, clock, airline, flightNum, fuelLeft, wait
+    //Returns:      nothing
+    //Calls:        onSpinWait()
+    //Globals:      none
+    private void put(int type, int clock, int airline, int flightNum,
+            int fuelLeft, int wait) {
+        long position = head;
+        if (position - cachedTail > mask) {
+            while (position - (cachedTail = tail) > mask) {
+                java.util.concurrent.locks.LockSupport.unpark(writer);
+                Thread.onSpinWait();
+            }
+        }
+        int slot = (int) (position & mask) * RECORD_INTS;
+        ring[slot] = type;
+        ring[slot + 1] = clock;
+        ring[slot + 2] = airline;
+        ring[slot + 3] = flightNum;
+        ring[slot + 4] = fuelLeft;
+        ring[slot + 5] = wait;
+        head = position + 1;
+    }
+//******************************************************************************
+
+    //Method:       drain
+    //Description:  This method is the writer thread. It formats every
+    //              published event, frees the slots in one step per batch, and
+    //              flushes and parks when the ring is empty.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        appendArrival()
+    //              appendLanding()
+    //              appendCrash()
+    //              appendHolding()
+    //              appendDiversion()
+    //              appendEmergency()
+    //Globals:      none
+    private void drain() {
+        StringBuilder line = new StringBuilder(128);
+        String newLine = System.lineSeparator();
+        try {
+            while (true) {
+                long available = head;
+                long position = tail;
+                if (position == available) {
+                    out.flush();
+                    if (closed && head == position) {
+                        return;
+                    }
+                    java.util.concurrent.locks.LockSupport.parkNanos(100000L);
+                    continue;
+                }
+                for (; position < available; position++) {
+                    int slot = (int) (position & mask) * RECORD_INTS;
+                    line.setLength(0);
+                    switch (ring[slot]) {
+                        case ARRIVAL:
+                            ConsoleEventSink.appendArrival(line, ring[slot + 1],
+                                    ring[slot + 2], ring[slot + 3], ring[slot + 4]);
+                            break;
+                        case LANDING:
+                            ConsoleEventSink.appendLanding(line, ring[slot + 2],
+                                    ring[slot + 3], ring[slot + 4], ring[slot + 5]);
+                            break;
+                        case HOLDING:
+                            ConsoleEventSink.appendHolding(line, ring[slot + 1],
+                                    ring[slot + 2], ring[slot + 3], ring[slot + 4],
+                                    ring[slot + 5]);
+                            break;
+                        case DIVERSION:
+                            ConsoleEventSink.appendDiversion(line, ring[slot + 2],
+                                    ring[slot + 3], ring[slot + 4], ring[slot + 5]);
+                            break;
+                        case EMERGENCY:
+                            ConsoleEventSink.appendEmergency(line, ring[slot + 2],
+                                    ring[slot + 3], ring[slot + 4]);
+                            break;
+                        default:
+                            ConsoleEventSink.appendCrash(line, ring[slot + 2],
+                                    ring[slot + 3], ring[slot + 5]);
+                    }
+                    out.append(line).append(newLine);
+                }
+                tail = available;
+            }
+        } catch (java.io.IOException e) {
+            failure = e;
+            tail = Long.MAX_VALUE / 2;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,344 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        BatchSimulation
+//Description:  This class runs the simulation without the keyboard and, by
+//              default, without any per-event output. Arrivals come from a
+//              PoissonArrivals source or a schedule file, the clock is driven
+//              by the chosen engine's runUntil, and only a summary is printed
+//              at the end. Options (all optional):
+//                  --rate=0.4          mean arrivals per minute
+//                  --fuel=1-20         fuel range of arriving planes
+//                  --separation=2      minutes between landings on a runway
+//                  --runways=1         runways sharing the holding pattern
+//                  --duration=525600   minutes to simulate (one year)
+//                  --seed=1            random seed
+//                  --schedule=<file>   replay arrivals from a schedule file
+//                                      (see ScheduleFormat) instead of
+//                                      drawing them; object engine and a
+//                                      single airport only
+//                  --queue=intheap     holding-pattern queue (intheap,
+//                                      indexed, list, heap, calendar or
+//                                      concurrent)
+//                  --policy=fuel       landing policy (fuel, fifo or
+//                                      lookahead; see LandingPolicy); any
+//                                      but fuel ignores --queue. "all" or a
+//                                      comma-separated list hands off to
+//                                      PolicyComparison
+//                  --engine=object     object (AirportSimulator with Airplane
+//                                      objects) or compact (CompactSimulator,
+//                                      allocation-free; ignores --queue and
+//                                      lands lowest fuel first only)
+//                  --log=none          event log for a single run (none,
+//                                      async or console); replications never
+//                                      log
+//                  --trace=<file>      binary event trace of a single run,
+//                                      for TraceAnalyzer
+//                  --metrics=<seconds> live metrics of a single run over JMX,
+//                                      with a snapshot line on standard
+//                                      error that often (0 = JMX only)
+//                  --airports=1        airports in a regional network; more
+//                                      than one hands off to
+//                                      RegionalSimulation (not with
+//                                      --replications)
+//                  --diversion=5       minutes to fly to another airport
+//                                      (one longer than the fuel range
+//                                      turns diversions off)
+//                  --replications=1    independent runs; more than one hands
+//                                      off to ReplicationRunner
+//                  --threads=<cores>   worker threads for replications
+//              Example: java AirportSimulator --batch --rate=0.45 --seed=7
+public class BatchSimulation implements Cloneable {
+
+    double rate = 0.4;
+    int minFuel = 1;
+    int maxFuel = 20;
+    int separation = 2;
+    int runways = 1;
+    int duration = 525600;
+    long seed = 1;
+    String queue = "intheap";
+    String policy = "fuel";
+    String engine = "object";
+    String log = "none";
+    String trace = null;
+    String schedule = null;
+    int metricsSeconds = -1;
+    int replications = 1;
+    int airports = 1;
+    int diversionMinutes = 5;
+    int threads = Runtime.getRuntime().availableProcessors();
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method parses the options, runs one simulation and
+    //              prints the summary with the run time.
+    //Parameters:   String[] args
+    //Returns:      nothing
+    //Calls:        parse()
+    //              createEventSink()
+    //              run()
+    //              ReplicationRunner.runAndReport()
+    //              RegionalSimulation.runAndReport()
+    //              PolicyComparison.runAndReport()
+    //Globals:      none
+    public static void main(String[] args) throws InterruptedException {
+        BatchSimulation batch = parse(args);
+        if (batch.schedule != null && batch.airports > 1) {
+            throw new IllegalArgumentException(
+                    "A schedule replays arrivals at one airport");
+        }
+        if (batch.schedule != null && batch.replications > 1) {
+            throw new IllegalArgumentException("A schedule replays the same "
+                    + "arrivals every time; drop --replications");
+        }
+        if (batch.policy.equals("all") || batch.policy.indexOf(',') >= 0) {
+            if (batch.airports > 1) {
+                throw new IllegalArgumentException(
+                        "Policies are compared at one airport");
+            }
+            String[] policies = batch.policy.equals("all")
+                    ? PolicyComparison.ALL_POLICIES : batch.policy.split(",");
+            new PolicyComparison(batch, policies, batch.threads).runAndReport();
+            return;
+        }
+        if (batch.airports > 1 && batch.replications > 1) {
+            throw new IllegalArgumentException(
+                    "A regional network runs once; drop --replications");
+        }
+        if (batch.airports > 1) {
+            new RegionalSimulation(batch, batch.airports,
+                    batch.diversionMinutes).runAndReport();
+            return;
+        }
+        long start = System.nanoTime();
+        if (batch.replications > 1) {
+            new ReplicationRunner(batch, batch.threads).runAndReport();
+            return;
+        }
+        EventSink events = AirportSimulator.createEventSink(batch.log,
+                batch.trace, batch.metricsSeconds, 0, 0);
+        SimulationStats stats = batch.run(new SplitMixRandom(batch.seed), events);
+        events.close();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(stats.summary());
+        System.out.println(String.format("Simulated %d minutes in %.3f s "
+                + "(%.1f million minutes/s)", batch.duration, seconds,
+                batch.duration / seconds / 1e6));
+    }
+//******************************************************************************
+
+    //Method:       parse
+    //Description:  This method reads --name=value options into a batch
+    //              configuration. --batch itself is skipped. An option it does
+    //              not know, such as a misspelt one, is rejected rather than
+    //              left to run the default experiment, and so are the
+    //              options that only the interactive program uses.
+    //Parameters:   String[] args
+    //Returns:      BatchSimulation
+    //Calls:        parseFuel()
+    //Globals:      none
+    static BatchSimulation parse(String[] args) {
+        BatchSimulation batch = new BatchSimulation();
+        for (String arg : args) {
+            if (arg.equals("--batch")) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "rate":
+                    batch.rate = Double.parseDouble(value);
+                    break;
+                case "fuel":
+                    batch.parseFuel(value);
+                    break;
+                case "separation":
+                    batch.separation = Integer.parseInt(value);
+                    break;
+                case "runways":
+                    batch.runways = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    batch.duration = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    batch.seed = Long.parseLong(value);
+                    break;
+                case "queue":
+                    batch.queue = value;
+                    break;
+                case "policy":
+                    batch.policy = value;
+                    break;
+                case "engine":
+                    batch.engine = value;
+                    break;
+                case "log":
+                    batch.log = value;
+                    break;
+                case "trace":
+                    batch.trace = value;
+                    break;
+                case "schedule":
+                    batch.schedule = value;
+                    break;
+                case "metrics":
+                    batch.metricsSeconds = Integer.parseInt(value);
+                    break;
+                case "airports":
+                    batch.airports = Integer.parseInt(value);
+                    break;
+                case "diversion":
+                    batch.diversionMinutes = Integer.parseInt(value);
+                    break;
+                case "replications":
+                    batch.replications = Integer.parseInt(value);
+                    break;
+                case "threads":
+                    batch.threads = Integer.parseInt(value);
+                    break;
+                case "script":
+                case "restore":
+                case "checkpoint":
+                    throw new IllegalArgumentException("--" + name
+                            + " is for the interactive program, not --batch");
+                default:
+                    throw new IllegalArgumentException("Unknown option: --"
+                            + name);
+            }
+        }
+        return batch;
+    }
+//******************************************************************************
+
+    //Method:       parseFuel
+    //Description:  This method reads a fuel range written min-max, such as
+    //              1-20, with 1 <= min <= max.
+    //Parameters:   String value
+    //Returns:      nothing
+    //Calls:        nothing
+    //Globals:      none
+    private void parseFuel(String value) {
+        int dash = value.indexOf('-');
+        if (dash <= 0) {
+            throw new IllegalArgumentException("--fuel takes a range such as "
+                    + "1-20, not " + value);
+        }
+        int min = Integer.parseInt(value.substring(0, dash));
+        int max = Integer.parseInt(value.substring(dash + 1));
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("--fuel needs 1 <= min <= max, "
+                    + "not " + value);
+        }
+        minFuel = min;
+        maxFuel = max;
+    }
+//******************************************************************************
+
+    public SimulationStats run(RandomSource random) {
+        return run(random, NullEventSink.INSTANCE);
+    }
+//******************************************************************************
+
+    //Method:       withPolicy
+    //Description:  This method returns a copy of this configuration that
+    //              lands planes by another policy.
+    //Parameters:   String policy
+    //Returns:      BatchSimulation
+    //Calls:        clone()
+    //Globals:      none
+    BatchSimulation withPolicy(String policy) {
+        try {
+            BatchSimulation copy = (BatchSimulation) clone();
+            copy.policy = policy;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+//******************************************************************************
+
+    //Method:       run
+    //Description:  This method builds a simulator for the configured engine
+    //              and runs it for the configured duration with arrivals drawn
+    //              from the given random source, reporting events to the given
+    //              sink. The same seed gives the same run on either engine.
+    //              The arrivals and the simulator each own a stream: the
+    //              simulator's is split off first, on both engines, so the
+    //              arrivals do not depend on the engine. With a schedule,
+    //              arrivals are replayed from it instead.
+    //Parameters:   RandomSource random, EventSink events
+    //Returns:      SimulationStats
+    //Calls:        split()
+    //              runSchedule()
+    //              createPlaneQueue()
+    //              runUntil()
+    //Globals:      none
+    public SimulationStats run(RandomSource random, EventSink events) {
+        if (schedule != null) {
+            return runSchedule(random, events);
+        }
+        RandomSource simRandom = random.split();
+        PoissonArrivals arrivals = new PoissonArrivals(random, rate, minFuel,
+                maxFuel, 0, duration);
+        switch (engine) {
+            case "object":
+                AirportSimulator sim = new AirportSimulator(
+                        AirportSimulator.createPlaneQueue(queue, policy),
+                        simRandom);
+                sim.landingSeparation = separation;
+                sim.setRunways(runways);
+                sim.events = events;
+                sim.runUntil(arrivals, duration);
+                return sim.stats;
+            case "compact":
+                if (!policy.equals("fuel")) {
+                    throw new IllegalArgumentException(
+                            "The compact engine lands lowest fuel first only");
+                }
+                CompactSimulator compact = new CompactSimulator();
+                compact.landingSeparation = separation;
+                compact.nextLandingTime = new int[runways];
+                compact.events = events;
+                compact.runUntil(arrivals, duration);
+                return compact.stats;
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+//******************************************************************************
+
+    //Method:       runSchedule
+    //Description:  This method runs the object engine on arrivals streamed
+    //              from the schedule file.
+    //Parameters:   RandomSource random, EventSink events
+    //Returns:      SimulationStats
+    //Calls:        ScheduleArrivals()
+    //              createPlaneQueue()
+    //              runUntil()
+    //Globals:      none
+    private SimulationStats runSchedule(RandomSource random, EventSink events) {
+        if (!engine.equals("object")) {
+            throw new IllegalArgumentException(
+                    "A schedule needs --engine=object");
+        }
+        AirportSimulator sim = new AirportSimulator(
+                AirportSimulator.createPlaneQueue(queue, policy), random);
+        sim.landingSeparation = separation;
+        sim.setRunways(runways);
+        sim.events = events;
+        try (ScheduleArrivals arrivals = new ScheduleArrivals(
+                java.nio.file.Paths.get(schedule))) {
+            sim.runUntil(arrivals, duration);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+        return sim.stats;
+    }
+}
+//******************************************************************************
+//******************************************************************************
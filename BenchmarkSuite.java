@@ -0,0 +1,357 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        BenchmarkSuite
+//Description:  This class is the regression benchmark suite for the queues and
+//              the simulation. It is a small hand-written harness, not JMH:
+//              the repository has no build tool and its sources are compiled
+//              as they stand with javac, and JMH needs its annotation
+//              processor and a Maven or Gradle build to generate and package
+//              its benchmarks. The harness does what it can with the JDK
+//              alone. Each benchmark runs in a JVM of its own, started with
+//              the same class path and JVM options, so one benchmark's JIT
+//              profile cannot slow the next. Each runs several warm-up
+//              iterations and then several timed iterations of a fixed
+//              length, reported as mean +/- standard deviation.
+//              Its limits, next to JMH:
+//              - Results are summed into a static field. That keeps the JIT
+//                from dropping the work, but it is not a Blackhole.
+//              - Queue operations are timed with System.nanoTime around
+//                batches of 64, so each op carries about 1/32 of a timer
+//                call, which matters most for getFront.
+//              - Allocation per operation is the thread's allocated-bytes
+//                counter over the timed iterations, not a GC profiler.
+//              Use the scores to compare runs on the same machine, not as
+//              absolute costs.
+//              Queue benchmarks run for every QueueInterface kind at several
+//              depths and follow the hold model (deadlines 1 to 20 minutes
+//              after the current front, as in the simulation):
+//                  enqueue     priorityEnqueue of a batch of planes
+//                  dequeue     dequeue of the same batch
+//                  getFront    getFront
+//                  mixed       dequeue + priorityEnqueue + getFront
+//              Their B/op includes the Airplane made for each operation.
+//              Simulation benchmarks run a full simulated hour and day at a
+//              fixed seed on each engine and queue.
+//              Usage: java BenchmarkSuite [filter] [iterationMillis]
+//                                         [--no-fork]
+//              The filter is a substring of the benchmark name, e.g. "heap".
+//              --no-fork runs every benchmark in this JVM, which is quicker
+//              and noisier.
+public class BenchmarkSuite {
+
+    private static final String[] QUEUES = {"list", "heap", "calendar"};
+    private static final int[] DEPTHS = {10, 1000, 100000};
+    private static final int BATCH = 64;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean)
+            java.lang.management.ManagementFactory.getThreadMXBean();
+
+    static long blackhole;
+
+    private final String filter;
+    private final long iterationMillis;
+    private final boolean fork;
+    private final boolean exact;
+//******************************************************************************
+
+    //Interface:    Trial
+    //Description:  One repetition of a benchmark. run performs ops()
+    //              operations and returns the nanoseconds spent on the part
+    //              being measured.
+    interface Trial {
+        long run();
+        int ops();
+    }
+//******************************************************************************
+
+    //Parameters:   String filter           substring of the names to run
+    //              long iterationMillis    length of one iteration
+    //              boolean fork            run each benchmark in its own JVM
+    //              boolean exact           filter is one whole name (as given
+    //                                      to a forked JVM)
+    public BenchmarkSuite(String filter, long iterationMillis, boolean fork,
+            boolean exact) {
+        this.filter = filter;
+        this.iterationMillis = iterationMillis;
+        this.fork = fork;
+        this.exact = exact;
+    }
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method runs every benchmark whose name matches the
+    //              filter and prints one line per benchmark. A forked JVM is
+    //              given one whole name with --only and prints just its line.
+    //Parameters:   String[] args
+    //Returns:      nothing
+    //Calls:        runAll()
+    //Globals:      none
+    public static void main(String[] args) {
+        java.util.List<String> positional = new java.util.ArrayList<>();
+        boolean fork = true;
+        boolean only = false;
+        for (String arg : args) {
+            if (arg.equals("--no-fork")) {
+                fork = false;
+            } else if (arg.equals("--only")) {
+                only = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+        String filter = positional.isEmpty() ? "" : positional.get(0);
+        long millis = (positional.size() > 1)
+                ? Long.parseLong(positional.get(1)) : 500;
+        if (only) {
+            new BenchmarkSuite(filter, millis, false, true).runAll();
+            return;
+        }
+        System.out.println(String.format("%-34s %14s %12s %-8s %10s",
+                "Benchmark", "Score", "Error", "Units", "B/op"));
+        new BenchmarkSuite(filter, millis, fork, false).runAll();
+    }
+//******************************************************************************
+
+    //Method:       runAll
+    //Description:  This method runs the queue and simulation benchmarks.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        measure()
+    //              holdTrial()
+    //              simulationTrial()
+    //Globals:      none
+    public void runAll() {
+        for (String kind : QUEUES) {
+            for (int depth : DEPTHS) {
+                for (String mode : new String[] {"enqueue", "dequeue",
+                        "getFront", "mixed"}) {
+                    measure("queue." + kind + "." + mode + ":" + depth,
+                            () -> holdTrial(kind, depth, mode), "ns/op");
+                }
+            }
+        }
+        for (String duration : new String[] {"hour", "day"}) {
+            for (String engine : new String[] {"object", "compact"}) {
+                for (String kind : QUEUES) {
+                    if (engine.equals("compact") && !kind.equals("heap")) {
+                        continue;
+                    }
+                    measure("simulation." + duration + "." + engine
+                            + (engine.equals("object") ? "." + kind : ""),
+                            () -> simulationTrial(engine, kind,
+                                    duration.equals("hour") ? 60 : 1440),
+                            "us/op");
+                }
+            }
+        }
+    }
+//******************************************************************************
+
+    //Method:       measure
+    //Description:  This method warms a trial up and then times measured
+    //              iterations, printing the mean time per operation, its
+    //              standard deviation over iterations, and bytes allocated per
+    //              operation. When forking, the trial is built and run in a
+    //              new JVM instead.
+    //Parameters:   String name
+    //              Supplier trials     builds the trial
+    //              String units        "ns/op" or "us/op"
+    //Returns:      nothing
+    //Calls:        runForked()
+    //              iteration()
+    //Globals:      none
+    void measure(String name, java.util.function.Supplier<Trial> trials,
+            String units) {
+        if (exact ? !name.equals(filter) : !name.contains(filter)) {
+            return;
+        }
+        if (fork) {
+            runForked(name);
+            return;
+        }
+        Trial trial = trials.get();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(trial, null);
+        }
+        double[] scores = new double[MEASURED_ITERATIONS];
+        long[] allocation = new long[2];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            scores[i] = iteration(trial, allocation);
+        }
+        double scale = units.equals("us/op") ? 1e-3 : 1.0;
+        double mean = 0;
+        for (double score : scores) {
+            mean += score;
+        }
+        mean /= scores.length;
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        double deviation = Math.sqrt(squares / (scores.length - 1));
+        System.out.println(String.format("%-34s %14.3f %12.3f %-8s %10.1f",
+                name, mean * scale, deviation * scale, units,
+                (double) allocation[0] / allocation[1]));
+    }
+//******************************************************************************
+
+    //Method:       runForked
+    //Description:  This method runs one benchmark in a new JVM with this
+    //              one's class path and JVM options, and lets it print its
+    //              line to this one's output.
+    //Parameters:   String name
+    //Returns:      nothing
+    //Calls:        getInputArguments()
+    //              start()
+    //              waitFor()
+    //Globals:      none
+    private void runForked(String name) {
+        java.util.List<String> command = new java.util.ArrayList<>();
+        command.add(java.nio.file.Paths.get(System.getProperty("java.home"),
+                "bin", "java").toString());
+        command.addAll(java.lang.management.ManagementFactory
+                .getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkSuite.class.getName());
+        command.add(name);
+        command.add(Long.toString(iterationMillis));
+        command.add("--only");
+        try {
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            if (process.waitFor() != 0) {
+                System.out.println(name + " failed in its forked JVM");
+            }
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(
+                    "Cannot start a JVM for " + name, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+//******************************************************************************
+
+    //Method:       iteration
+    //Description:  This method repeats a trial for one iteration's length.
+    //Parameters:   Trial trial
+    //              long[] allocation   if not null, bytes allocated and
+    //                                  operations run are added to it
+    //Returns:      double (nanoseconds per operation)
+    //Calls:        run()
+    //Globals:      none
+    private double iteration(Trial trial, long[] allocation) {
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long end = System.nanoTime() + iterationMillis * 1000000L;
+        long measured = 0;
+        long ops = 0;
+        do {
+            measured += trial.run();
+            ops += trial.ops();
+        } while (System.nanoTime() < end);
+        if (allocation != null) {
+            allocation[0] += THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+            allocation[1] += ops;
+        }
+        return (double) measured / ops;
+    }
+//******************************************************************************
+
+    //Method:       holdTrial
+    //Description:  This method builds a queue of the given kind filled to
+    //              depth and returns a trial for one operation mode. Enqueue
+    //              and dequeue time one half of a batch of BATCH inserts and
+    //              BATCH removals each, so the depth stays put.
+    //Parameters:   String kind, int depth, String mode
+    //Returns:      Trial
+    //Calls:        createQueue()
+    //Globals:      none
+    static Trial holdTrial(String kind, int depth, String mode) {
+        QueueInterface queue = AirportSimulator.createQueue(kind);
+        RandomSource random = new SplitMixRandom(depth);
+        java.util.List<Airplane> planes = new java.util.ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            planes.add(new Airplane(0, 1000, 0, random.nextInt(20) + 1));
+        }
+        queue.priorityEnqueueAll(planes);
+        Airplane[] batch = new Airplane[BATCH];
+        return new Trial() {
+            @Override
+            public long run() {
+                int front = ((Airplane) queue.getFront()).deadline;
+                for (int i = 0; i < BATCH; i++) {
+                    batch[i] = new Airplane(0, 1000, 0,
+                            front + random.nextInt(20) + 1);
+                }
+                long start;
+                long enqueued;
+                long dequeued;
+                switch (mode) {
+                    case "getFront":
+                        start = System.nanoTime();
+                        for (int i = 0; i < BATCH; i++) {
+                            blackhole += ((Airplane) queue.getFront()).deadline;
+                        }
+                        return System.nanoTime() - start;
+                    case "mixed":
+                        start = System.nanoTime();
+                        for (int i = 0; i < BATCH; i++) {
+                            blackhole += ((Airplane) queue.dequeue()).deadline;
+                            queue.priorityEnqueue(batch[i]);
+                            blackhole += ((Airplane) queue.getFront()).deadline;
+                        }
+                        return System.nanoTime() - start;
+                    default:
+                        start = System.nanoTime();
+                        for (int i = 0; i < BATCH; i++) {
+                            queue.priorityEnqueue(batch[i]);
+                        }
+                        enqueued = System.nanoTime();
+                        for (int i = 0; i < BATCH; i++) {
+                            blackhole += ((Airplane) queue.dequeue()).deadline;
+                        }
+                        dequeued = System.nanoTime();
+                        return mode.equals("enqueue") ? enqueued - start
+                                : dequeued - enqueued;
+                }
+            }
+
+            @Override
+            public int ops() {
+                return BATCH;
+            }
+        };
+    }
+//******************************************************************************
+
+    //Method:       simulationTrial
+    //Description:  This method returns a trial that runs a whole batch
+    //              simulation of the given length at a fixed seed.
+    //Parameters:   String engine, String kind, int minutes
+    //Returns:      Trial
+    //Calls:        run()
+    //Globals:      none
+    static Trial simulationTrial(String engine, String kind, int minutes) {
+        BatchSimulation batch = BatchSimulation.parse(new String[] {
+            "--engine=" + engine, "--queue=" + kind,
+            "--duration=" + minutes, "--rate=0.45"});
+        return new Trial() {
+            @Override
+            public long run() {
+                long start = System.nanoTime();
+                blackhole += batch.run(new SplitMixRandom(42)).landings;
+                return System.nanoTime() - start;
+            }
+
+            @Override
+            public int ops() {
+                return 1;
+            }
+        };
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,293 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        CalendarQueue
+//Description:  This class is a calendar (bucket) queue implementation of
+//              QueueInterface for IntKeyed entries. It has a circular array of
+//              buckets, one per key, covering the window of keys from the
+//              lowest key in the queue upward. Each bucket is a FIFO chain, so
+//              priorityEnqueue is O(1) and equal keys leave in arrival order.
+//              dequeue and getFront move a cursor forward over empty buckets,
+//              which is O(1) amortized when keys only move forward, as fuel
+//              deadlines do. The array doubles when a key falls outside the
+//              window. That makes this queue suited to small bounded key
+//              ranges, such as planes keyed by the minute their fuel runs out.
+//              Iteration and peekTopK walk the buckets in key order without
+//              changing anything, in O(n + key range).
+public class CalendarQueue implements QueueInterface, java.io.Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_BUCKETS = 32;
+    private static final int MAX_BUCKETS = 1 << 26;
+
+    private Node[] heads;
+    private Node[] tails;
+    private int mask;
+    private int lowKey;
+    private int highKey;
+    private int size;
+    private int modCount;
+//******************************************************************************
+
+    public CalendarQueue() {
+        this(DEFAULT_BUCKETS);
+    }
+//******************************************************************************
+
+    public CalendarQueue(int keySpan) {
+        int buckets = Integer.highestOneBit(Math.max(keySpan, 2) - 1) << 1;
+        heads = new Node[buckets];
+        tails = new Node[buckets];
+        mask = buckets - 1;
+        size = 0;
+    }
+//******************************************************************************
+
+    //Method:       priorityEnqueue
+    //Description:  This method appends an entry to the bucket for its key,
+    //              widening the window of buckets first if the key is outside
+    //              it.
+    //Parameters:   Comparable newEntry (must implement IntKeyed)
+    //Returns:      nothing
+    //Calls:        priorityKey()
+    //              resize()
+    //Globals:      none
+    @Override
+    public void priorityEnqueue(Comparable<Object> newEntry) {
+        int key = ((IntKeyed) newEntry).priorityKey();
+        if (size == 0) {
+            lowKey = key;
+            highKey = key;
+        } else if (key < lowKey) {
+            fitWindow(key, highKey);
+            lowKey = key;
+        } else if (key > highKey) {
+            fitWindow(lowKey, key);
+            highKey = key;
+        }
+        Node newNode = new Node(newEntry, key);
+        int bucket = key & mask;
+        if (heads[bucket] == null) {
+            heads[bucket] = newNode;
+        } else {
+            tails[bucket].next = newNode;
+        }
+        tails[bucket] = newNode;
+        size++;
+        modCount++;
+    }
+//******************************************************************************
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void enqueue(Object newEntry) {
+        priorityEnqueue((Comparable<Object>) newEntry);
+    }
+//******************************************************************************
+
+    //Method:       dequeue
+    //Description:  This method removes the first entry of the lowest non-empty
+    //              bucket.
+    //Parameters:   none
+    //Returns:      Object (null if the queue is empty)
+    //Calls:        advance()
+    //Globals:      none
+    @Override
+    public Object dequeue() {
+        if (size == 0) {
+            return null;
+        }
+        int bucket = advance();
+        Node front = heads[bucket];
+        heads[bucket] = front.next;
+        if (front.next == null) {
+            tails[bucket] = null;
+        }
+        size--;
+        modCount++;
+        return front.data;
+    }
+//******************************************************************************
+
+    @Override
+    public Object getFront() {
+        return (size == 0) ? null : heads[advance()].data;
+    }
+//******************************************************************************
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+//******************************************************************************
+
+    @Override
+    public void clear() {
+        java.util.Arrays.fill(heads, null);
+        java.util.Arrays.fill(tails, null);
+        size = 0;
+        modCount++;
+    }
+//******************************************************************************
+
+    @Override
+    public int size() {
+        return size;
+    }
+//******************************************************************************
+
+    //Method:       removeIf
+    //Description:  This method unlinks every entry the filter accepts in one
+    //              pass over the window's buckets. The window is left as it
+    //              was; the cursor skips any buckets that are now empty.
+    //Parameters:   Predicate filter
+    //Returns:      int (number of entries removed)
+    //Calls:        test()
+    //Globals:      none
+    @Override
+    public int removeIf(java.util.function.Predicate<Object> filter) {
+        int removed = 0;
+        for (int key = lowKey; key <= highKey; key++) {
+            int bucket = key & mask;
+            Node before = null;
+            for (Node node = heads[bucket]; node != null; node = node.next) {
+                if (filter.test(node.data)) {
+                    if (before == null) {
+                        heads[bucket] = node.next;
+                    } else {
+                        before.next = node.next;
+                    }
+                    removed++;
+                } else {
+                    before = node;
+                }
+            }
+            tails[bucket] = before;
+        }
+        if (removed > 0) {
+            size -= removed;
+            modCount++;
+        }
+        return removed;
+    }
+//******************************************************************************
+
+    //Method:       iterator
+    //Description:  This method returns a read-only iterator over the entries
+    //              in dequeue order: bucket by bucket from the lowest key, each
+    //              bucket's chain front to back. Changing the queue during
+    //              iteration makes the iterator throw
+    //              ConcurrentModificationException.
+    //Parameters:   none
+    //Returns:      Iterator
+    //Calls:        nothing
+    //Globals:      none
+    @Override
+    public java.util.Iterator<Object> iterator() {
+        return new java.util.Iterator<Object>() {
+            private final int expectedModCount = modCount;
+            private int remaining = size;
+            private int key = lowKey;
+            private Node node = null;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Object next() {
+                if (modCount != expectedModCount) {
+                    throw new java.util.ConcurrentModificationException();
+                }
+                if (remaining == 0) {
+                    throw new java.util.NoSuchElementException();
+                }
+                node = (node == null) ? null : node.next;
+                while (node == null) {
+                    node = heads[key++ & mask];
+                }
+                remaining--;
+                return node.data;
+            }
+        };
+    }
+//******************************************************************************
+
+    @Override
+    public Object[] peekTopK(int k) {
+        Object[] top = new Object[Math.max(0, Math.min(k, size))];
+        java.util.Iterator<Object> entries = iterator();
+        for (int i = 0; i < top.length; i++) {
+            top[i] = entries.next();
+        }
+        return top;
+    }
+//******************************************************************************
+
+    //Method:       advance
+    //Description:  This method moves lowKey up to the lowest key that has an
+    //              entry and returns its bucket. The queue must not be empty.
+    //Parameters:   none
+    //Returns:      int
+    //Calls:        nothing
+    //Globals:      none
+    private int advance() {
+        while (heads[lowKey & mask] == null) {
+            lowKey++;
+        }
+        return lowKey & mask;
+    }
+//******************************************************************************
+
+    //Method:       fitWindow
+    //Description:  This method doubles the bucket array until every key from
+    //              low to high has a bucket of its own, moving each bucket's
+    //              chain whole so arrival order within a key is kept.
+    //Parameters:   int low, int high
+    //Returns:      nothing
+    //Calls:        nothing
+    //Globals:      none
+    private void fitWindow(int low, int high) {
+        long span = (long) high - low + 1;
+        if (span <= heads.length) {
+            return;
+        }
+        if (span > MAX_BUCKETS) {
+            throw new IllegalStateException("Key range " + low + ".." + high
+                    + " is too wide for a calendar queue");
+        }
+        int buckets = heads.length;
+        while (buckets < span) {
+            buckets <<= 1;
+        }
+        Node[] newHeads = new Node[buckets];
+        Node[] newTails = new Node[buckets];
+        int newMask = buckets - 1;
+        for (int i = 0; i < heads.length; i++) {
+            if (heads[i] != null) {
+                int bucket = heads[i].key & newMask;
+                newHeads[bucket] = heads[i];
+                newTails[bucket] = tails[i];
+            }
+        }
+        heads = newHeads;
+        tails = newTails;
+        mask = newMask;
+    }
+//******************************************************************************
+//******************************************************************************
+
+    private static class Node implements java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Object data;
+        private final int key;
+        private Node next;
+
+        private Node(Object data, int key) {
+            this.data = data;
+            this.key = key;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,270 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        Checkpoint
+//Description:  This class saves and restores the whole state of an
+//              AirportSimulator in a compact binary format, all big-endian:
+//                  header  int magic ("ACKP"), int version
+//                  clock   int clock, int landing separation, int runways,
+//                          int next landing time per runway
+//                  random  long seed, long gamma (SplitMixRandom state)
+//                  stats   long arrivals, landings, crashes, diversions,
+//                          total wait; int max wait, queue depth, peak depth
+//                  queue   int planes, then per plane in dequeue order:
+//                          byte airline, byte reserved, short reserved,
+//                          int flight number, int arrival, int deadline
+//              The queue is written by iterating it, not by serializing its
+//              nodes, so no object graph is walked and any queue type can be
+//              restored into any other. Planes are loaded back in one batch
+//              with loadInOrder, which keeps their order among equal
+//              deadlines whichever way the queue breaks ties (the list
+//              PriorityQueue puts a new plane ahead of equal ones) and costs
+//              O(n) for the heaps and the list. The list is written as it is
+//              stored; the simulator reads its ties from the back at odd
+//              minutes, and the clock is restored with it, so that carries
+//              over too. A state captured in memory can be restored into any
+//              number of fresh simulators to fork what-if runs. The event
+//              sink is not part of the state.
+//              java Checkpoint checks that a checkpoint changes nothing (see
+//              main).
+public final class Checkpoint {
+
+    static final int MAGIC = 0x41434B50;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int PLANE_BYTES = 16;
+    private static final int STATS_BYTES = 5 * 8 + 3 * 4;
+    private static final String[] QUEUE_KINDS = {"list", "heap", "calendar",
+        "concurrent", "intheap", "indexed"};
+//******************************************************************************
+
+    private Checkpoint() {
+    }
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method checks that a checkpoint changes nothing. For
+    //              every queue kind under the fuel policy, every other landing
+    //              policy (which keeps its own queue), and each seed, it runs
+    //              one session straight through and again split at a
+    //              checkpoint restored into a fresh simulator, then compares
+    //              the two final states byte for byte. Planes arrive every
+    //              minute faster than one runway lands them, so the queue
+    //              holds many equal deadlines when it is split. It prints one
+    //              line per queue and exits with status 1 if any run differs.
+    //              Usage: java Checkpoint [--seeds=<n>]
+    //Parameters:   String[] args
+    //Returns:      nothing
+    //Calls:        splitMatches()
+    //Globals:      none
+    public static void main(String[] args) {
+        int seeds = 16;
+        for (String arg : args) {
+            if (arg.startsWith("--seeds=")) {
+                seeds = Integer.parseInt(arg.substring("--seeds=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        int runs = QUEUE_KINDS.length + PolicyComparison.ALL_POLICIES.length - 1;
+        boolean failed = false;
+        for (int run = 0; run < runs; run++) {
+            String kind = (run < QUEUE_KINDS.length) ? QUEUE_KINDS[run] : "list";
+            String policy = (run < QUEUE_KINDS.length) ? "fuel"
+                    : PolicyComparison.ALL_POLICIES[run - QUEUE_KINDS.length + 1];
+            StringBuilder mismatches = new StringBuilder();
+            for (long seed = 1; seed <= seeds; seed++) {
+                if (!splitMatches(kind, policy, seed)) {
+                    mismatches.append(' ').append(seed);
+                }
+            }
+            String name = policy.equals("fuel") ? "--queue=" + kind
+                    : "--policy=" + policy;
+            System.out.println(String.format("%-20s %s", name,
+                    (mismatches.length() == 0) ? "split matches unbroken"
+                            : "DIFFERS for seed(s)" + mismatches));
+            failed |= mismatches.length() > 0;
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+//******************************************************************************
+
+    //Method:       splitMatches
+    //Description:  This method runs one session unbroken and split at a
+    //              checkpoint and reports whether they end in the same state.
+    //Parameters:   String kind, String policy, long seed
+    //Returns:      boolean
+    //Calls:        createPlaneQueue()
+    //              execute()
+    //              capture()
+    //              restore()
+    //Globals:      none
+    private static boolean splitMatches(String kind, String policy, long seed) {
+        AirportSimulator[] sims = new AirportSimulator[3];
+        for (int i = 0; i < sims.length; i++) {
+            sims[i] = new AirportSimulator(
+                    AirportSimulator.createPlaneQueue(kind, policy),
+                    new SplitMixRandom(seed));
+            sims[i].events = NullEventSink.INSTANCE;
+        }
+        AirportSimulator unbroken = sims[0];
+        AirportSimulator before = sims[1];
+        AirportSimulator after = sims[2];
+        unbroken.execute('P', 300);
+        unbroken.execute('D', 40);
+        before.execute('P', 150);
+        restore(capture(before), after);
+        after.execute('P', 150);
+        after.execute('D', 40);
+        return capture(unbroken).equals(capture(after));
+    }
+//******************************************************************************
+
+    //Method:       capture
+    //Description:  This method writes a simulator's state into a new buffer.
+    //              The simulator must use a SplitMixRandom, whose two longs
+    //              are its whole state.
+    //Parameters:   AirportSimulator sim
+    //Returns:      ByteBuffer (flipped, ready to read)
+    //Calls:        size()
+    //              iterator()
+    //Globals:      none
+    public static java.nio.ByteBuffer capture(AirportSimulator sim) {
+        if (!(sim.random instanceof SplitMixRandom)) {
+            throw new IllegalArgumentException("Only a SplitMixRandom can be "
+                    + "checkpointed, not " + sim.random.getClass().getName());
+        }
+        SplitMixRandom random = (SplitMixRandom) sim.random;
+        int runways = sim.nextLandingTime.length;
+        java.nio.ByteBuffer state = java.nio.ByteBuffer.allocate(HEADER_BYTES
+                + 12 + 4 * runways + 16 + STATS_BYTES + 4
+                + PLANE_BYTES * sim.planeQueue.size());
+        state.putInt(MAGIC).putInt(VERSION);
+        state.putInt(sim.clock).putInt(sim.landingSeparation).putInt(runways);
+        for (int runway = 0; runway < runways; runway++) {
+            state.putInt(sim.nextLandingTime[runway]);
+        }
+        state.putLong(random.getSeed()).putLong(random.getGamma());
+        SimulationStats stats = sim.stats;
+        state.putLong(stats.arrivals).putLong(stats.landings)
+                .putLong(stats.crashes).putLong(stats.diversions)
+                .putLong(stats.totalWait).putInt(stats.maxWait)
+                .putInt(stats.queueDepth).putInt(stats.peakQueueDepth);
+        state.putInt(sim.planeQueue.size());
+        for (Airplane plane : sim.planeQueue) {
+            state.put(plane.airlineCode).put((byte) 0).putShort((short) 0)
+                    .putInt(plane.flightNum).putInt(plane.arrival)
+                    .putInt(plane.deadline);
+        }
+        state.flip();
+        return state;
+    }
+//******************************************************************************
+
+    //Method:       restore
+    //Description:  This method replaces a simulator's state with a captured
+    //              one. The simulator keeps its own queue, stats and event
+    //              sink objects; the queue is emptied and refilled. The
+    //              buffer's position is not moved, so one capture can be
+    //              restored many times.
+    //Parameters:   ByteBuffer state        from capture() or load()
+    //              AirportSimulator sim    the simulator to overwrite
+    //Returns:      nothing
+    //Calls:        clear()
+    //              loadInOrder()
+    //Globals:      none
+    public static void restore(java.nio.ByteBuffer state,
+            AirportSimulator sim) {
+        java.nio.ByteBuffer in = state.duplicate();
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a simulation checkpoint");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported checkpoint version "
+                    + version);
+        }
+        sim.clock = in.getInt();
+        sim.landingSeparation = in.getInt();
+        sim.setRunways(in.getInt());
+        for (int runway = 0; runway < sim.nextLandingTime.length; runway++) {
+            sim.nextLandingTime[runway] = in.getInt();
+        }
+        sim.random = new SplitMixRandom(in.getLong(), in.getLong());
+        SimulationStats stats = sim.stats;
+        stats.arrivals = in.getLong();
+        stats.landings = in.getLong();
+        stats.crashes = in.getLong();
+        stats.diversions = in.getLong();
+        stats.totalWait = in.getLong();
+        stats.maxWait = in.getInt();
+        stats.queueDepth = in.getInt();
+        stats.peakQueueDepth = in.getInt();
+        sim.planeQueue.clear();
+        int planes = in.getInt();
+        java.util.List<Airplane> holding = new java.util.ArrayList<>(planes);
+        int[] deadlines = new int[planes];
+        for (int i = 0; i < planes; i++) {
+            byte airline = in.get();
+            in.get();
+            in.getShort();
+            int flightNum = in.getInt();
+            int arrival = in.getInt();
+            deadlines[i] = in.getInt();
+            holding.add(new Airplane(airline, flightNum, arrival,
+                    deadlines[i] - arrival));
+        }
+        sim.planeQueue.loadInOrder(holding, deadlines);
+    }
+//******************************************************************************
+
+    //Method:       save
+    //Description:  This method captures a simulator's state and writes it to
+    //              a file through a FileChannel.
+    //Parameters:   AirportSimulator sim, Path path
+    //Returns:      nothing
+    //Calls:        capture()
+    //Globals:      none
+    public static void save(AirportSimulator sim, java.nio.file.Path path)
+            throws java.io.IOException {
+        java.nio.ByteBuffer state = capture(sim);
+        try (java.nio.channels.FileChannel channel =
+                java.nio.channels.FileChannel.open(path,
+                        java.nio.file.StandardOpenOption.CREATE,
+                        java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                        java.nio.file.StandardOpenOption.WRITE)) {
+            while (state.hasRemaining()) {
+                channel.write(state);
+            }
+        }
+    }
+//******************************************************************************
+
+    //Method:       load
+    //Description:  This method reads a checkpoint file into a buffer for
+    //              restore().
+    //Parameters:   Path path
+    //Returns:      ByteBuffer (flipped, ready to read)
+    //Calls:        nothing
+    //Globals:      none
+    public static java.nio.ByteBuffer load(java.nio.file.Path path)
+            throws java.io.IOException {
+        try (java.nio.channels.FileChannel channel =
+                java.nio.channels.FileChannel.open(path,
+                        java.nio.file.StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new java.io.IOException("Checkpoint too large: " + path);
+            }
+            java.nio.ByteBuffer state =
+                    java.nio.ByteBuffer.allocate((int) size);
+            while (state.hasRemaining() && channel.read(state) >= 0) {
+            }
+            state.flip();
+            return state;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
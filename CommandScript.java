@@ -0,0 +1,239 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        CommandScript
+//Description:  This class replays a file of simulator commands, one per line:
+//                  D, P or S       as typed at the Next Action prompt
+//                  E flight fuel   fuel emergency: the flight now has fuel
+//                                  minutes left
+//                  V flight        divert the flight to another airport
+//                  X               stop (the rest of the file is ignored)
+//                  (blank line)    D, as pressing ENTER at the prompt is
+//                  # ...           a comment
+//              A command may be followed by a repeat count, as in "P x1000"
+//              or "D 60", and letters may be in either case. Commands are
+//              parsed straight out of one large char buffer, so a script of
+//              millions of lines is read without making a String per line,
+//              and each counted command is handed to the simulator as a single
+//              batch. E and V need --queue=indexed or a --policy other than
+//              fuel, and are ignored for a flight that is not holding. A
+//              malformed line, or an E or V the simulator refuses, stops the
+//              script with an IllegalArgumentException that gives its line
+//              number.
+public class CommandScript implements AutoCloseable {
+
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    private final java.io.Reader reader;
+    private final AirportSimulator sim;
+    private final char[] buffer = new char[BUFFER_CHARS];
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private int number;
+//******************************************************************************
+
+    public CommandScript(java.io.Reader reader, AirportSimulator sim) {
+        this.reader = reader;
+        this.sim = sim;
+    }
+//******************************************************************************
+
+    //Method:       open
+    //Description:  This method opens a script file, or standard input if the
+    //              path is "-".
+    //Parameters:   String path, AirportSimulator sim
+    //Returns:      CommandScript
+    //Calls:        Files.newBufferedReader()
+    //Globals:      none
+    public static CommandScript open(String path, AirportSimulator sim)
+            throws java.io.IOException {
+        java.io.Reader reader = path.equals("-")
+                ? new java.io.InputStreamReader(System.in,
+                        java.nio.charset.StandardCharsets.UTF_8)
+                : java.nio.file.Files.newBufferedReader(
+                        java.nio.file.Paths.get(path),
+                        java.nio.charset.StandardCharsets.UTF_8);
+        return new CommandScript(reader, sim);
+    }
+//******************************************************************************
+
+    //Method:       run
+    //Description:  This method executes commands until an X or the end of the
+    //              script.
+    //Parameters:   none
+    //Returns:      long (number of lines read)
+    //Calls:        read()
+    //              skipSpaces()
+    //              readNumber()
+    //              skipLine()
+    //              execute()
+    //              declareEmergency()
+    //              divert()
+    //Globals:      none
+    public long run() throws java.io.IOException {
+        int c;
+        while ((c = read()) >= 0) {
+            lineNumber++;
+            if (c == ' ' || c == '\t') {
+                c = skipSpaces(c);
+            }
+            if (c == '\n' || c == '\r' || c < 0) {
+                sim.execute('D', 1);
+                skipEndOfLine(c);
+                continue;
+            }
+            if (c == '#') {
+                skipLine();
+                continue;
+            }
+            char command = Character.toUpperCase((char) c);
+            if (command == 'X') {
+                break;
+            }
+            if ("DPSEV".indexOf(command) < 0) {
+                throw error("unknown command '" + (char) c + "'");
+            }
+            c = skipSpaces(read());
+            if (command == 'E' || command == 'V') {
+                c = readNumber(c, "a flight number");
+                int flightNum = number;
+                if (command == 'E') {
+                    c = readNumber(c, "the fuel left");
+                }
+                endOfCommand(c);
+                try {
+                    if (command == 'E') {
+                        sim.declareEmergency(flightNum, number);
+                    } else {
+                        sim.divert(flightNum);
+                    }
+                } catch (IllegalArgumentException
+                        | UnsupportedOperationException e) {
+                    throw error(e.getMessage());
+                }
+            } else {
+                int count = 1;
+                if (c == 'x' || c == 'X') {
+                    c = readNumber(skipSpaces(read()), "a count after 'x'");
+                    count = number;
+                } else if (c >= '0' && c <= '9') {
+                    c = readNumber(c, "a count");
+                    count = number;
+                }
+                endOfCommand(c);
+                sim.execute(command, count);
+            }
+            if (c == '#') {
+                skipLine();
+            } else {
+                skipEndOfLine(c);
+            }
+        }
+        return lineNumber;
+    }
+//******************************************************************************
+
+    @Override
+    public void close() throws java.io.IOException {
+        reader.close();
+    }
+//******************************************************************************
+
+    //Method:       read
+    //Description:  This method returns the next char, refilling the buffer
+    //              when it runs out.
+    //Parameters:   none
+    //Returns:      int (-1 at the end of the script)
+    //Calls:        peek()
+    //Globals:      none
+    private int read() throws java.io.IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+//******************************************************************************
+
+    private int peek() throws java.io.IOException {
+        if (position == limit) {
+            limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+//******************************************************************************
+
+    private int skipSpaces(int c) throws java.io.IOException {
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+        return c;
+    }
+//******************************************************************************
+
+    //Method:       readNumber
+    //Description:  This method parses an unsigned int starting at c into the
+    //              number field.
+    //Parameters:   int c           first char of the number
+    //              String what     what the number is, for the error message
+    //Returns:      int (the first char after the number and any spaces)
+    //Calls:        read()
+    //              skipSpaces()
+    //Globals:      none
+    private int readNumber(int c, String what) throws java.io.IOException {
+        if (c < '0' || c > '9') {
+            throw error("expected " + what);
+        }
+        number = 0;
+        while (c >= '0' && c <= '9') {
+            if (number > (Integer.MAX_VALUE - 9) / 10) {
+                throw error("number too large");
+            }
+            number = number * 10 + (c - '0');
+            c = read();
+        }
+        return skipSpaces(c);
+    }
+//******************************************************************************
+
+    private void endOfCommand(int c) {
+        if (c != '\n' && c != '\r' && c != '#' && c >= 0) {
+            throw error("unexpected '" + (char) c + "'");
+        }
+    }
+//******************************************************************************
+
+    private void skipLine() throws java.io.IOException {
+        int c = read();
+        while (c != '\n' && c != '\r' && c >= 0) {
+            c = read();
+        }
+        skipEndOfLine(c);
+    }
+//******************************************************************************
+
+    //Method:       skipEndOfLine
+    //Description:  This method consumes the \n of a \r\n pair so Windows line
+    //              endings count as one line.
+    //Parameters:   int c       the line-ending char just read
+    //Returns:      nothing
+    //Calls:        peek()
+    //Globals:      none
+    private void skipEndOfLine(int c) throws java.io.IOException {
+        if (c == '\r' && peek() == '\n') {
+            position++;
+        }
+    }
+//******************************************************************************
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Script line " + lineNumber + ": "
+                + message);
+    }
+}
+//******************************************************************************
+//******************************************************************************
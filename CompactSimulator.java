@@ -0,0 +1,106 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        CompactSimulator
+//Description:  This class is a batch-only form of AirportSimulator that keeps
+//              planes in a PlaneStore and queues their int handles, which
+//              the store owns, in an IntKeyedHeap keyed by deadline. Its
+//              rules are the same as runUntil and timePasses: arrivals, then
+//              a landing on each free runway, then crashes of planes whose
+//              fuel has run out. It makes no Airplane objects and reports
+//              events to its sink as primitives, so once its arrays have
+//              grown to the deepest holding pattern, no arrival or minute
+//              allocates anything.
+public class CompactSimulator {
+
+    int clock = 0;
+    int landingSeparation = 2;
+    int[] nextLandingTime = new int[1];
+    PlaneStore planes = new PlaneStore();
+    IntKeyedHeap<Void> planeQueue = new IntKeyedHeap<>();
+    SimulationStats stats = new SimulationStats();
+    EventSink events = NullEventSink.INSTANCE;
+//******************************************************************************
+
+    //Method:       runUntil
+    //Description:  This method jumps from event to event like
+    //              AirportSimulator.runUntil and leaves the clock at endTime.
+    //Parameters:   PoissonArrivals arrivals    planes to arrive, in time order
+    //              int endTime                 first minute not simulated
+    //Returns:      nothing
+    //Calls:        nextEventTime()
+    //              nextArrivalTime()
+    //              arrive()
+    //              timePasses()
+    //Fields:       clock
+    public void runUntil(PoissonArrivals arrivals, int endTime) {
+        int eventTime = nextEventTime(arrivals);
+        while (eventTime < endTime) {
+            clock = eventTime;
+            while (arrivals.nextArrivalTime() == clock) {
+                arrive(arrivals.nextArrival(planes));
+            }
+            timePasses();
+            clock++;
+            eventTime = nextEventTime(arrivals);
+        }
+        clock = Math.max(clock, endTime);
+    }
+//******************************************************************************
+
+    private int nextEventTime(PoissonArrivals arrivals) {
+        int eventTime = arrivals.nextArrivalTime();
+        if (!planeQueue.isEmpty()) {
+            for (int time : nextLandingTime) {
+                eventTime = Math.min(eventTime, time);
+            }
+            eventTime = Math.min(eventTime, planeQueue.getFrontKey());
+        }
+        return Math.max(eventTime, clock);
+    }
+//******************************************************************************
+
+    public void arrive(int plane) {
+        planeQueue.addHandle(plane, planes.deadline[plane]);
+        stats.recordArrival();
+        events.onArrival(clock, planes.airline[plane], planes.flightNum[plane],
+                planes.deadline[plane] - clock);
+    }
+//******************************************************************************
+
+    //Method:       timePasses
+    //Description:  This method lands the front plane on each free runway and
+    //              then removes every plane whose fuel has run out, returning
+    //              their rows to the store.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        pollHandle()
+    //              getFrontKey()
+    //              release()
+    //Fields:       clock
+    //              planes
+    //              planeQueue
+    //              nextLandingTime
+    //              stats
+    //              events
+    public void timePasses() {
+        for (int runway = 0; runway < nextLandingTime.length; runway++) {
+            if (clock >= nextLandingTime[runway] && !planeQueue.isEmpty()) {
+                int p = planeQueue.pollHandle();
+                stats.recordLanding(clock - planes.arrival[p]);
+                events.onLanding(clock, planes.airline[p], planes.flightNum[p],
+                        planes.deadline[p] - clock, clock - planes.arrival[p]);
+                planes.release(p);
+                nextLandingTime[runway] = clock + landingSeparation;
+            }
+        }
+        while (planeQueue.getFrontKey() <= clock) {
+            int p = planeQueue.pollHandle();
+            stats.recordCrash();
+            events.onCrash(clock, planes.airline[p], planes.flightNum[p],
+                    clock - planes.arrival[p]);
+            planes.release(p);
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
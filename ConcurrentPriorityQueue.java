@@ -0,0 +1,164 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        ConcurrentPriorityQueue
+//Description:  This class is a thread-safe implementation of QueueInterface
+//              built on the lock-free skip list ConcurrentSkipListMap. Any
+//              number of threads may call priorityEnqueue, dequeue and
+//              getFront at once without locking. dequeue removes the
+//              smallest entry atomically (pollFirstEntry), so each entry is
+//              taken by exactly one thread, and both dequeue and getFront are
+//              linearizable. Each entry is stamped from an atomic counter
+//              when it is added, so equal entries leave in the order their
+//              inserts took effect. Operations cost O(log n) expected.
+//              Iteration is ordered and weakly consistent: it never fails and
+//              reflects the queue at some point during the iteration. size is
+//              a counter kept beside the map (the map's own size is O(n)) and
+//              may be briefly off while other threads are in the middle of an
+//              operation.
+public class ConcurrentPriorityQueue implements QueueInterface,
+        java.io.Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final java.util.concurrent.ConcurrentSkipListMap<Entry, Boolean>
+            entries = new java.util.concurrent.ConcurrentSkipListMap<>();
+    private final java.util.concurrent.atomic.AtomicLong nextSequence =
+            new java.util.concurrent.atomic.AtomicLong();
+    private final java.util.concurrent.atomic.AtomicInteger size =
+            new java.util.concurrent.atomic.AtomicInteger();
+//******************************************************************************
+
+    @Override
+    public void priorityEnqueue(Comparable<Object> newEntry) {
+        entries.put(new Entry(newEntry, nextSequence.getAndIncrement()),
+                Boolean.TRUE);
+        size.incrementAndGet();
+    }
+//******************************************************************************
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void enqueue(Object newEntry) {
+        priorityEnqueue((Comparable<Object>) newEntry);
+    }
+//******************************************************************************
+
+    @Override
+    public Object dequeue() {
+        java.util.Map.Entry<Entry, Boolean> front = entries.pollFirstEntry();
+        if (front == null) {
+            return null;
+        }
+        size.decrementAndGet();
+        return front.getKey().data;
+    }
+//******************************************************************************
+
+    @Override
+    public Object getFront() {
+        java.util.Map.Entry<Entry, Boolean> front = entries.firstEntry();
+        return (front == null) ? null : front.getKey().data;
+    }
+//******************************************************************************
+
+    @Override
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+//******************************************************************************
+
+    //Method:       clear
+    //Description:  This method removes entries one at a time so the size
+    //              counter stays right if other threads are adding meanwhile.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        dequeue()
+    //Globals:      none
+    @Override
+    public void clear() {
+        while (dequeue() != null) {
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public int size() {
+        return Math.max(size.get(), 0);
+    }
+//******************************************************************************
+
+    //Method:       removeIf
+    //Description:  This method walks the skip list once and removes each
+    //              accepted entry individually, so other threads can keep
+    //              using the queue meanwhile. An entry another thread dequeues
+    //              first is not counted.
+    //Parameters:   Predicate filter
+    //Returns:      int (number of entries removed by this call)
+    //Calls:        test()
+    //Globals:      none
+    @Override
+    public int removeIf(java.util.function.Predicate<Object> filter) {
+        int removed = 0;
+        for (Entry entry : entries.keySet()) {
+            if (filter.test(entry.data) && entries.remove(entry) != null) {
+                size.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+//******************************************************************************
+
+    @Override
+    public java.util.Iterator<Object> iterator() {
+        java.util.Iterator<Entry> keys = entries.keySet().iterator();
+        return new java.util.Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                return keys.next().data;
+            }
+        };
+    }
+//******************************************************************************
+
+    @Override
+    public Object[] peekTopK(int k) {
+        java.util.List<Object> top = new java.util.ArrayList<>(
+                Math.max(0, Math.min(k, size())));
+        java.util.Iterator<Entry> keys = entries.keySet().iterator();
+        while (top.size() < k && keys.hasNext()) {
+            top.add(keys.next().data);
+        }
+        return top.toArray();
+    }
+//******************************************************************************
+//******************************************************************************
+
+    //Class:        Entry
+    //Description:  A queued entry with its insertion sequence number, ordered
+    //              by the entry and then by sequence.
+    private static class Entry implements Comparable<Entry>,
+            java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Comparable<Object> data;
+        private final long sequence;
+
+        private Entry(Comparable<Object> data, long sequence) {
+            this.data = data;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = data.compareTo(other.data);
+            return (result != 0) ? result
+                    : Long.compare(sequence, other.sequence);
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
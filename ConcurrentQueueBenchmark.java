@@ -0,0 +1,167 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        ConcurrentQueueBenchmark
+//Description:  This class measures a shared queue under contention at 1 to 64
+//              threads. Every thread alternates between an arrival
+//              (priorityEnqueue) and a landing (dequeue), so the queue stays
+//              near its starting depth of 10,000 and dequeues never find it
+//              empty, which would make them look cheap. Each configuration
+//              runs for a fixed time, and the result is total operations per
+//              second across all threads. The lock-free
+//              ConcurrentPriorityQueue is compared with a HeapPriorityQueue
+//              behind one lock.
+//              Usage: java ConcurrentQueueBenchmark [budgetMillis]
+public class ConcurrentQueueBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int INITIAL_DEPTH = 10000;
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method warms both queues up and prints a table of
+    //              million operations per second by thread count.
+    //Parameters:   String[] args
+    //Returns:      nothing
+    //Calls:        measure()
+    //Globals:      none
+    public static void main(String[] args) throws InterruptedException {
+        long budget = (args.length > 0) ? Long.parseLong(args[0]) : 1000;
+        measure(new ConcurrentPriorityQueue(), 4, budget);
+        measure(new LockedQueue(new HeapPriorityQueue()), 4, budget);
+        System.out.println(String.format("%-8s %18s %18s", "threads",
+                "skiplist Mops/s", "locked heap Mops/s"));
+        for (int threads : THREADS) {
+            System.out.println(String.format("%-8d %18.2f %18.2f", threads,
+                    measure(new ConcurrentPriorityQueue(), threads, budget),
+                    measure(new LockedQueue(new HeapPriorityQueue()), threads,
+                            budget)));
+        }
+    }
+//******************************************************************************
+
+    //Method:       measure
+    //Description:  This method fills the queue, starts the threads together,
+    //              lets them run for the budget, and returns the throughput.
+    //Parameters:   QueueInterface queue, int threads, long budgetMillis
+    //Returns:      double (million operations per second)
+    //Calls:        priorityEnqueue()
+    //              dequeue()
+    //Globals:      none
+    static double measure(QueueInterface queue, int threads, long budgetMillis)
+            throws InterruptedException {
+        RandomSource fill = new SplitMixRandom(threads);
+        for (int i = 0; i < INITIAL_DEPTH; i++) {
+            queue.priorityEnqueue(new Airplane(0, 1000, 0, fill.nextInt(1000)));
+        }
+        java.util.concurrent.atomic.LongAdder operations =
+                new java.util.concurrent.atomic.LongAdder();
+        java.util.concurrent.CountDownLatch start =
+                new java.util.concurrent.CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] stopAt = new long[1];
+        for (int t = 0; t < threads; t++) {
+            RandomSource random = new SplitMixRandom(t * 31 + threads);
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long done = 0;
+                int key = 0;
+                while (System.nanoTime() < stopAt[0]) {
+                    for (int i = 0; i < 256; i++) {
+                        if (i % 2 == 0) {
+                            key += random.nextInt(8);
+                            queue.priorityEnqueue(new Airplane(0, 1000, 0,
+                                    key % 1000));
+                        } else {
+                            queue.dequeue();
+                        }
+                    }
+                    done += 256;
+                }
+                operations.add(done);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        stopAt[0] = begin + budgetMillis * 1000000L;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return operations.sum() / seconds / 1e6;
+    }
+//******************************************************************************
+//******************************************************************************
+
+    //Class:        LockedQueue
+    //Description:  The baseline: any QueueInterface behind one lock.
+    static class LockedQueue implements QueueInterface {
+        private final QueueInterface queue;
+
+        LockedQueue(QueueInterface queue) {
+            this.queue = queue;
+        }
+
+        public synchronized void priorityEnqueue(Comparable<Object> newEntry) {
+            queue.priorityEnqueue(newEntry);
+        }
+
+        public synchronized void enqueue(Object newEntry) {
+            queue.enqueue(newEntry);
+        }
+
+        public synchronized Object dequeue() {
+            return queue.dequeue();
+        }
+
+        public synchronized Object getFront() {
+            return queue.getFront();
+        }
+
+        public synchronized boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        public synchronized void clear() {
+            queue.clear();
+        }
+
+        public synchronized int size() {
+            return queue.size();
+        }
+
+        public java.util.Iterator<Object> iterator() {
+            return queue.iterator();
+        }
+
+        public synchronized Object[] peekTopK(int k) {
+            return queue.peekTopK(k);
+        }
+
+        public synchronized void priorityEnqueueAll(
+                java.util.Collection<? extends Comparable<Object>> newEntries) {
+            queue.priorityEnqueueAll(newEntries);
+        }
+
+        public synchronized void loadInOrder(
+                java.util.List<? extends Comparable<Object>> entries) {
+            queue.loadInOrder(entries);
+        }
+
+        public synchronized int drainTo(java.util.Collection<Object> sink,
+                int maxEntries) {
+            return queue.drainTo(sink, maxEntries);
+        }
+
+        public synchronized int removeIf(
+                java.util.function.Predicate<Object> filter) {
+            return queue.removeIf(filter);
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
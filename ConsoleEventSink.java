@@ -0,0 +1,125 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        ConsoleEventSink
+//Description:  This class is an EventSink that prints each event as soon as
+//              it happens, in the program's usual wording. The static append
+//              methods hold that wording so other sinks print identical text.
+public class ConsoleEventSink implements EventSink {
+
+    private final java.io.PrintStream out;
+//******************************************************************************
+
+    public ConsoleEventSink() {
+        this(System.out);
+    }
+//******************************************************************************
+
+    public ConsoleEventSink(java.io.PrintStream out) {
+        this.out = out;
+    }
+//******************************************************************************
+
+    @Override
+    public void onArrival(int clock, int airline, int flightNum, int fuelLeft) {
+        out.println(appendArrival(new StringBuilder(), clock, airline,
+                flightNum, fuelLeft));
+    }
+//******************************************************************************
+
+    @Override
+    public void onLanding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        out.println(appendLanding(new StringBuilder(), airline, flightNum,
+                fuelLeft, wait));
+    }
+//******************************************************************************
+
+    @Override
+    public void onCrash(int clock, int airline, int flightNum, int wait) {
+        out.println(appendCrash(new StringBuilder(), airline, flightNum, wait));
+    }
+//******************************************************************************
+
+    @Override
+    public void onHolding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        out.println(appendHolding(new StringBuilder(), clock, airline,
+                flightNum, fuelLeft, wait));
+    }
+//******************************************************************************
+
+    @Override
+    public void onDiversion(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        out.println(appendDiversion(new StringBuilder(), airline, flightNum,
+                fuelLeft, wait));
+    }
+//******************************************************************************
+
+    @Override
+    public void onEmergency(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        out.println(appendEmergency(new StringBuilder(), airline, flightNum,
+                fuelLeft));
+    }
+//******************************************************************************
+
+    @Override
+    public void close() {
+        out.flush();
+    }
+//******************************************************************************
+
+    static StringBuilder appendArrival(StringBuilder line, int clock,
+            int airline, int flightNum, int fuelLeft) {
+        return line.append(Airplane.AIRLINES[airline]).append(" flight ")
+                .append(flightNum).append(" arrives at ").append(clock)
+                .append(" minutes with ").append(fuelLeft)
+                .append(" minutes of fuel left");
+    }
+//******************************************************************************
+
+    static StringBuilder appendLanding(StringBuilder line, int airline,
+            int flightNum, int fuelLeft, int wait) {
+        return line.append(Airplane.AIRLINES[airline]).append(" flight ")
+                .append(flightNum).append(" lands with ").append(fuelLeft)
+                .append(" minutes of fuel left after waiting ").append(wait)
+                .append(" min(s)");
+    }
+//******************************************************************************
+
+    static StringBuilder appendCrash(StringBuilder line, int airline,
+            int flightNum, int wait) {
+        return line.append('\n')
+                .append(Airplane.AIRLINES[airline]).append(" flight ")
+                .append(flightNum).append(" CRASHES after waiting ")
+                .append(wait).append(" min(s)");
+    }
+//******************************************************************************
+
+    static StringBuilder appendHolding(StringBuilder line, int clock,
+            int airline, int flightNum, int fuelLeft, int wait) {
+        return line.append(Airplane.AIRLINES[airline]).append(" flight ")
+                .append(flightNum).append(": Fuel left=").append(fuelLeft)
+                .append("; Arrival time=").append(clock - wait);
+    }
+//******************************************************************************
+
+    static StringBuilder appendDiversion(StringBuilder line, int airline,
+            int flightNum, int fuelLeft, int wait) {
+        return line.append(Airplane.AIRLINES[airline]).append(" flight ")
+                .append(flightNum).append(" is diverted with ").append(fuelLeft)
+                .append(" minutes of fuel left after waiting ").append(wait)
+                .append(" min(s)");
+    }
+//******************************************************************************
+
+    static StringBuilder appendEmergency(StringBuilder line, int airline,
+            int flightNum, int fuelLeft) {
+        return line.append(Airplane.AIRLINES[airline]).append(" flight ")
+                .append(flightNum).append(" declares a fuel emergency with ")
+                .append(fuelLeft).append(" minutes of fuel left");
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,118 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        CrashLookAhead
+//Description:  This class is a LandingPolicy that serves planes in arrival
+//              order unless that would cost a crash. When a runway comes
+//              free it compares two choices: the plane that has waited
+//              longest and the plane with the least fuel. For each one it
+//              projects the crashes among the next planes, in deadline order,
+//              if that plane lands now and the rest land lowest fuel first on
+//              the runways as they come free. A plane whose projected slot is
+//              after its deadline crashes and does not use the slot. The
+//              longest-waiting plane lands unless that projects more crashes
+//              than landing the plane with the least fuel; a tie goes to the
+//              longest-waiting plane. Planes yet to arrive are not projected.
+//              Only the first horizon planes by deadline are looked at, which
+//              bounds the cost of a choice at O(horizon * (log n + runways)).
+public class CrashLookAhead implements LandingPolicy {
+
+    static final int DEFAULT_HORIZON = 32;
+
+    private final int horizon;
+    private int[] freeAt = new int[1];
+//******************************************************************************
+
+    public CrashLookAhead() {
+        this(DEFAULT_HORIZON);
+    }
+//******************************************************************************
+
+    //Parameters:   int horizon     planes by deadline looked at per choice
+    public CrashLookAhead(int horizon) {
+        if (horizon < 1) {
+            throw new IllegalArgumentException("The horizon must be positive");
+        }
+        this.horizon = horizon;
+    }
+//******************************************************************************
+
+    @Override
+    public int landingKey(Airplane plane) {
+        return plane.arrival;
+    }
+//******************************************************************************
+
+    //Method:       chooseLanding
+    //Description:  This method lands the longest-waiting plane unless the
+    //              plane with the least fuel projects fewer crashes.
+    //Parameters:   HoldingPattern holding, int clock, int runway,
+    //              int[] nextLandingTime, int separation
+    //Returns:      int (handle of the plane to land)
+    //Calls:        firstInLine()
+    //              mostUrgent()
+    //              projectedCrashes()
+    //Globals:      none
+    @Override
+    public int chooseLanding(HoldingPattern holding, int clock, int runway,
+            int[] nextLandingTime, int separation) {
+        int first = holding.firstInLine();
+        int urgent = holding.mostUrgent();
+        if (first == urgent) {
+            return first;
+        }
+        int crashesIfFirst = projectedCrashes(holding, holding.getInLine(first),
+                clock, runway, nextLandingTime, separation);
+        int crashesIfUrgent = projectedCrashes(holding, holding.getInLine(urgent),
+                clock, runway, nextLandingTime, separation);
+        return (crashesIfFirst <= crashesIfUrgent) ? first : urgent;
+    }
+//******************************************************************************
+
+    //Method:       projectedCrashes
+    //Description:  This method counts the crashes among the first horizon
+    //              planes by deadline if the given plane lands now on the
+    //              runway and the others land earliest deadline first in the
+    //              earliest free slot on any runway.
+    //Parameters:   HoldingPattern holding
+    //              Airplane landing        the plane landed now
+    //              int clock, int runway, int[] nextLandingTime,
+    //              int separation
+    //Returns:      int
+    //Calls:        iterator()
+    //Globals:      none
+    private int projectedCrashes(HoldingPattern holding, Airplane landing,
+            int clock, int runway, int[] nextLandingTime, int separation) {
+        int runways = nextLandingTime.length;
+        if (freeAt.length < runways) {
+            freeAt = new int[runways];
+        }
+        for (int r = 0; r < runways; r++) {
+            freeAt[r] = Math.max(nextLandingTime[r], clock);
+        }
+        freeAt[runway] = clock + separation;
+        int crashes = 0;
+        int looked = 0;
+        for (Airplane plane : holding) {
+            if (plane == landing) {
+                continue;
+            }
+            if (++looked > horizon) {
+                break;
+            }
+            int earliest = 0;
+            for (int r = 1; r < runways; r++) {
+                if (freeAt[r] < freeAt[earliest]) {
+                    earliest = r;
+                }
+            }
+            if (freeAt[earliest] > plane.deadline) {
+                crashes++;
+            } else {
+                freeAt[earliest] += separation;
+            }
+        }
+        return crashes;
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,23 @@
+//******************************************************************************
+//Interface:    EventSink
+//Description:  Receives what happens in a simulation as primitive fields, so
+//              nothing has to be built unless a sink decides to. airline is an
+//              index into Airplane.AIRLINES. fuelLeft is the fuel at the time
+//              of the event and wait is the minutes since arrival. onHolding
+//              reports a plane still in the holding pattern when it is shown
+//              (the S command). onDiversion reports a holding plane sent to
+//              another airport, and onEmergency a holding plane whose fuel is
+//              now fuelLeft. close delivers anything still buffered.
+public interface EventSink {
+    public void onArrival(int clock, int airline, int flightNum, int fuelLeft);
+    public void onLanding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait);
+    public void onCrash(int clock, int airline, int flightNum, int wait);
+    public void onHolding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait);
+    public void onDiversion(int clock, int airline, int flightNum, int fuelLeft,
+            int wait);
+    public void onEmergency(int clock, int airline, int flightNum, int fuelLeft,
+            int wait);
+    public void close();
+}
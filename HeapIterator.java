@@ -0,0 +1,118 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        HeapIterator
+//Description:  This class is the read-only iterator of the array heaps
+//              (HeapPriorityQueue and IntKeyedHeap). It returns the entries in
+//              dequeue order by walking the heap best-first, keeping the slots
+//              it can reach next in a small side heap of its own: a slot's
+//              children can only come after it. The heap itself is not
+//              touched, and the first k entries cost O(k log k). A heap
+//              supplies the order of two slots, the entry in a slot and
+//              whether it has changed since the iterator was made, which
+//              makes next throw ConcurrentModificationException.
+public abstract class HeapIterator<T> implements java.util.Iterator<T> {
+
+    private final int size;
+    private int[] frontier = new int[16];
+    private int frontierSize;
+//******************************************************************************
+
+    //Parameters:   int size        entries in the heap
+    protected HeapIterator(int size) {
+        this.size = size;
+        frontierSize = (size > 0) ? 1 : 0;
+    }
+//******************************************************************************
+
+    //Method:       less
+    //Description:  Whether the entry in slot i is dequeued before the one in
+    //              slot j.
+    protected abstract boolean less(int i, int j);
+//******************************************************************************
+
+    protected abstract T entryAt(int slot);
+//******************************************************************************
+
+    protected abstract boolean changed();
+//******************************************************************************
+
+    @Override
+    public boolean hasNext() {
+        return frontierSize > 0;
+    }
+//******************************************************************************
+
+    //Method:       next
+    //Description:  This method takes the best slot off the side heap and puts
+    //              its children on.
+    //Parameters:   none
+    //Returns:      T
+    //Calls:        changed()
+    //              down()
+    //              add()
+    //              entryAt()
+    //Globals:      none
+    @Override
+    public T next() {
+        if (changed()) {
+            throw new java.util.ConcurrentModificationException();
+        }
+        if (frontierSize == 0) {
+            throw new java.util.NoSuchElementException();
+        }
+        int slot = frontier[0];
+        frontier[0] = frontier[--frontierSize];
+        down(0);
+        for (int child = 2 * slot + 1; child <= 2 * slot + 2; child++) {
+            if (child < size) {
+                add(child);
+            }
+        }
+        return entryAt(slot);
+    }
+//******************************************************************************
+
+    private void add(int slot) {
+        if (frontierSize == frontier.length) {
+            frontier = java.util.Arrays.copyOf(frontier, frontierSize * 2);
+        }
+        int index = frontierSize++;
+        frontier[index] = slot;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(frontier[index], frontier[parent])) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+//******************************************************************************
+
+    private void down(int index) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= frontierSize) {
+                break;
+            }
+            if (child + 1 < frontierSize
+                    && less(frontier[child + 1], frontier[child])) {
+                child++;
+            }
+            if (!less(frontier[child], frontier[index])) {
+                break;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+//******************************************************************************
+
+    private void swap(int i, int j) {
+        int slot = frontier[i];
+        frontier[i] = frontier[j];
+        frontier[j] = slot;
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,312 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        HeapPriorityQueue
+//Description:  This class is an array-based binary min-heap implementation of
+//              QueueInterface. priorityEnqueue and dequeue run in O(log n) and
+//              getFront in O(1). Every entry is stamped with an insertion
+//              sequence number so entries that compare equal leave the heap in
+//              the order they were added (first in, first out). Iteration
+//              and peekTopK read the heap in dequeue order without changing
+//              it; the first k entries cost O(k log k). priorityEnqueueAll
+//              and removeIf rebuild the heap bottom-up in O(n) when that is
+//              cheaper than sifting entries one at a time.
+public class HeapPriorityQueue implements QueueInterface, java.io.Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private Comparable<Object>[] heap;
+    private long[] sequence;
+    private int size;
+    private long nextSequence;
+    private int modCount;
+//******************************************************************************
+
+    public HeapPriorityQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+//******************************************************************************
+
+    @SuppressWarnings("unchecked")
+    public HeapPriorityQueue(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        heap = (Comparable<Object>[]) new Comparable<?>[capacity];
+        sequence = new long[capacity];
+        size = 0;
+        nextSequence = 0;
+    }
+//******************************************************************************
+
+    //Method:       priorityEnqueue
+    //Description:  This method adds an entry at the bottom of the heap and
+    //              sifts it up until its parent is no larger than it.
+    //Parameters:   Comparable newEntry
+    //Returns:      nothing
+    //Calls:        ensureCapacity()
+    //              siftUp()
+    //Globals:      none
+    @Override
+    public void priorityEnqueue(Comparable<Object> newEntry) {
+        ensureCapacity(size + 1);
+        heap[size] = newEntry;
+        sequence[size] = nextSequence++;
+        siftUp(size++);
+        modCount++;
+    }
+//******************************************************************************
+
+    //Method:       enqueue
+    //Description:  A heap has no position outside of priority order, so plain
+    //              enqueues are placed by priority as well. Entries enqueued in
+    //              priority order therefore still come back out in that order.
+    //Parameters:   Object newEntry
+    //Returns:      nothing
+    //Calls:        priorityEnqueue()
+    //Globals:      none
+    @Override
+    @SuppressWarnings("unchecked")
+    public void enqueue(Object newEntry) {
+        priorityEnqueue((Comparable<Object>) newEntry);
+    }
+//******************************************************************************
+
+    //Method:       priorityEnqueueAll
+    //Description:  This method appends the new entries, stamped in collection
+    //              order, and restores the heap. When the batch is at least as
+    //              large as the heap it was added to, the whole array is
+    //              heapified bottom-up in O(n); a smaller batch is sifted up
+    //              entry by entry in O(k log n).
+    //Parameters:   Collection newEntries
+    //Returns:      nothing
+    //Calls:        ensureCapacity()
+    //              siftUp()
+    //              heapify()
+    //Globals:      none
+    @Override
+    public void priorityEnqueueAll(
+            java.util.Collection<? extends Comparable<Object>> newEntries) {
+        int oldSize = size;
+        ensureCapacity(size + newEntries.size());
+        for (Comparable<Object> newEntry : newEntries) {
+            heap[size] = newEntry;
+            sequence[size] = nextSequence++;
+            size++;
+        }
+        if (size - oldSize >= oldSize) {
+            heapify();
+        } else {
+            for (int index = oldSize; index < size; index++) {
+                siftUp(index);
+            }
+        }
+        modCount++;
+    }
+//******************************************************************************
+
+    //Method:       removeIf
+    //Description:  This method keeps the entries the filter rejects, packed at
+    //              the front of the array with their sequence numbers, and
+    //              heapifies them in O(n).
+    //Parameters:   Predicate filter
+    //Returns:      int (number of entries removed)
+    //Calls:        test()
+    //              heapify()
+    //Globals:      none
+    @Override
+    public int removeIf(java.util.function.Predicate<Object> filter) {
+        int kept = 0;
+        for (int index = 0; index < size; index++) {
+            if (!filter.test(heap[index])) {
+                heap[kept] = heap[index];
+                sequence[kept] = sequence[index];
+                kept++;
+            }
+        }
+        int removed = size - kept;
+        if (removed > 0) {
+            java.util.Arrays.fill(heap, kept, size, null);
+            size = kept;
+            heapify();
+            modCount++;
+        }
+        return removed;
+    }
+//******************************************************************************
+
+    //Method:       dequeue
+    //Description:  This method removes the root of the heap, moves the last
+    //              entry into its place and sifts that entry down.
+    //Parameters:   none
+    //Returns:      Object (null if the queue is empty)
+    //Calls:        siftDown()
+    //Globals:      none
+    @Override
+    public Object dequeue() {
+        if (size == 0) {
+            return null;
+        }
+        Object front = heap[0];
+        size--;
+        heap[0] = heap[size];
+        sequence[0] = sequence[size];
+        heap[size] = null;
+        if (size > 0) {
+            siftDown(0);
+        }
+        modCount++;
+        return front;
+    }
+//******************************************************************************
+
+    @Override
+    public Object getFront() {
+        return (size == 0) ? null : heap[0];
+    }
+//******************************************************************************
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+//******************************************************************************
+
+    @Override
+    public void clear() {
+        java.util.Arrays.fill(heap, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+//******************************************************************************
+
+    @Override
+    public int size() {
+        return size;
+    }
+//******************************************************************************
+
+    //Method:       iterator
+    //Description:  This method returns a read-only HeapIterator over the
+    //              entries in dequeue order.
+    //Parameters:   none
+    //Returns:      Iterator
+    //Calls:        less()
+    //Globals:      none
+    @Override
+    public java.util.Iterator<Object> iterator() {
+        return new HeapIterator<Object>(size) {
+            private final int expectedModCount = modCount;
+
+            @Override
+            protected boolean less(int i, int j) {
+                return HeapPriorityQueue.this.less(i, j);
+            }
+
+            @Override
+            protected Object entryAt(int slot) {
+                return heap[slot];
+            }
+
+            @Override
+            protected boolean changed() {
+                return modCount != expectedModCount;
+            }
+        };
+    }
+//******************************************************************************
+
+    //Method:       peekTopK
+    //Description:  This method copies the first k entries in dequeue order
+    //              without removing them, in O(k log k).
+    //Parameters:   int k
+    //Returns:      Object[] (fewer than k entries if the queue is shorter)
+    //Calls:        iterator()
+    //Globals:      none
+    @Override
+    public Object[] peekTopK(int k) {
+        Object[] top = new Object[Math.max(0, Math.min(k, size))];
+        java.util.Iterator<Object> entries = iterator();
+        for (int i = 0; i < top.length; i++) {
+            top[i] = entries.next();
+        }
+        return top;
+    }
+//******************************************************************************
+
+    //Method:       less
+    //Description:  This method orders two heap slots by their entries and then
+    //              by insertion sequence, which gives equal entries FIFO order.
+    //Parameters:   int i, int j
+    //Returns:      boolean
+    //Calls:        compareTo()
+    //Globals:      none
+    private boolean less(int i, int j) {
+        int result = heap[i].compareTo(heap[j]);
+        return result < 0 || (result == 0 && sequence[i] < sequence[j]);
+    }
+//******************************************************************************
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(index, parent)) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+//******************************************************************************
+
+    private void siftDown(int index) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(child + 1, child)) {
+                child++;
+            }
+            if (!less(child, index)) {
+                break;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+//******************************************************************************
+
+    //Method:       heapify
+    //Description:  This method restores heap order over the whole array by
+    //              sifting down every parent from the last one up, which is
+    //              O(n) in total.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        siftDown()
+    //Globals:      none
+    private void heapify() {
+        for (int index = (size >>> 1) - 1; index >= 0; index--) {
+            siftDown(index);
+        }
+    }
+//******************************************************************************
+
+    private void swap(int i, int j) {
+        Comparable<Object> entry = heap[i];
+        heap[i] = heap[j];
+        heap[j] = entry;
+        long order = sequence[i];
+        sequence[i] = sequence[j];
+        sequence[j] = order;
+    }
+//******************************************************************************
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > heap.length) {
+            int newLength = Math.max(capacity, heap.length * 2);
+            heap = java.util.Arrays.copyOf(heap, newLength);
+            sequence = java.util.Arrays.copyOf(sequence, newLength);
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,222 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        HoldingPattern
+//Description:  This class is the simulator's queue when a LandingPolicy
+//              chooses the landings. It keeps the holding planes in two
+//              IntKeyedHeaps at once: one by deadline, which is what the
+//              simulator sees as an IntKeyedQueue (the front key is the next
+//              crash, and dequeue takes the plane that has run out of fuel),
+//              and one by the policy's landing key, from which land takes the
+//              next plane to land. Each plane's handle in one heap is kept
+//              against its handle in the other, in two int arrays, so a plane
+//              that leaves either way is removed from both in O(log n).
+//              Iteration is in deadline order, as for every other plane
+//              queue, so S and Checkpoint work unchanged. As an IndexedQueue
+//              it finds planes by flight number and its handles are those of
+//              the deadline heap, so divert and declareEmergency work under
+//              every policy; the handles chooseLanding deals in are those of
+//              the landing heap.
+public class HoldingPattern implements IndexedQueue<Airplane> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final LandingPolicy policy;
+    private final IntKeyedHeap<Airplane> byDeadline =
+            new IntKeyedHeap<>(plane -> plane.flightNum);
+    private final IntKeyedHeap<Airplane> inLine = new IntKeyedHeap<>();
+    private int[] lineHandleOf = new int[DEFAULT_CAPACITY];
+    private int[] deadlineHandleOf = new int[DEFAULT_CAPACITY];
+//******************************************************************************
+
+    public HoldingPattern(LandingPolicy policy) {
+        this.policy = policy;
+    }
+//******************************************************************************
+
+    //Method:       priorityEnqueue
+    //Description:  This method adds a plane to both heaps, by deadline and by
+    //              its landing key, and links the two handles.
+    //Parameters:   Airplane newPlane
+    //              int key         the plane's deadline
+    //Returns:      nothing
+    //Calls:        insert()
+    //              landingKey()
+    //Globals:      none
+    @Override
+    public void priorityEnqueue(Airplane newPlane, int key) {
+        int deadlineHandle = byDeadline.insert(newPlane, key);
+        int lineHandle = inLine.insert(newPlane, policy.landingKey(newPlane));
+        int needed = Math.max(deadlineHandle, lineHandle) + 1;
+        if (needed > lineHandleOf.length) {
+            int newLength = Math.max(needed, lineHandleOf.length * 2);
+            lineHandleOf = java.util.Arrays.copyOf(lineHandleOf, newLength);
+            deadlineHandleOf = java.util.Arrays.copyOf(deadlineHandleOf,
+                    newLength);
+        }
+        lineHandleOf[deadlineHandle] = lineHandle;
+        deadlineHandleOf[lineHandle] = deadlineHandle;
+    }
+//******************************************************************************
+
+    //Method:       land
+    //Description:  This method takes the plane the policy chooses to land
+    //              now out of the holding pattern.
+    //Parameters:   int clock
+    //              int runway              the runway that is free
+    //              int[] nextLandingTime   every runway's separation timer
+    //              int separation          minutes between landings
+    //Returns:      Airplane (null if no plane is holding)
+    //Calls:        chooseLanding()
+    //              remove()
+    //Globals:      none
+    public Airplane land(int clock, int runway, int[] nextLandingTime,
+            int separation) {
+        if (inLine.isEmpty()) {
+            return null;
+        }
+        int lineHandle = policy.chooseLanding(this, clock, runway,
+                nextLandingTime, separation);
+        byDeadline.remove(deadlineHandleOf[lineHandle]);
+        return inLine.remove(lineHandle);
+    }
+//******************************************************************************
+
+    //Method:       firstInLine
+    //Description:  This method returns the handle of the plane with the
+    //              lowest landing key.
+    //Parameters:   none
+    //Returns:      int (-1 if no plane is holding)
+    //Calls:        getFrontHandle()
+    //Globals:      none
+    public int firstInLine() {
+        return inLine.getFrontHandle();
+    }
+//******************************************************************************
+
+    //Method:       mostUrgent
+    //Description:  This method returns the handle, in landing order, of the
+    //              plane with the earliest deadline.
+    //Parameters:   none
+    //Returns:      int (-1 if no plane is holding)
+    //Calls:        getFrontHandle()
+    //Globals:      none
+    public int mostUrgent() {
+        int deadlineHandle = byDeadline.getFrontHandle();
+        return (deadlineHandle < 0) ? deadlineHandle
+                : lineHandleOf[deadlineHandle];
+    }
+//******************************************************************************
+
+    public Airplane getInLine(int lineHandle) {
+        return inLine.get(lineHandle);
+    }
+//******************************************************************************
+
+    @Override
+    public boolean canFind() {
+        return true;
+    }
+//******************************************************************************
+
+    @Override
+    public int find(int flightNum) {
+        return byDeadline.find(flightNum);
+    }
+//******************************************************************************
+
+    @Override
+    public Airplane get(int handle) {
+        return byDeadline.get(handle);
+    }
+//******************************************************************************
+
+    //Method:       remove
+    //Description:  This method takes a plane out of both heaps, as when it is
+    //              diverted.
+    //Parameters:   int handle      the plane's handle in the deadline heap
+    //Returns:      Airplane
+    //Calls:        remove()
+    //Globals:      none
+    @Override
+    public Airplane remove(int handle) {
+        Airplane plane = byDeadline.remove(handle);
+        inLine.remove(lineHandleOf[handle]);
+        return plane;
+    }
+//******************************************************************************
+
+    //Method:       updatePriority
+    //Description:  This method moves a plane whose deadline has changed to its
+    //              new place in both heaps; its landing key is asked of the
+    //              policy again, since it may depend on the deadline.
+    //Parameters:   int handle      the plane's handle in the deadline heap
+    //              int newKey      the plane's new deadline
+    //Returns:      nothing
+    //Calls:        updatePriority()
+    //              landingKey()
+    //Globals:      none
+    @Override
+    public void updatePriority(int handle, int newKey) {
+        byDeadline.updatePriority(handle, newKey);
+        inLine.updatePriority(lineHandleOf[handle],
+                policy.landingKey(byDeadline.get(handle)));
+    }
+//******************************************************************************
+
+    //Method:       dequeue
+    //Description:  This method takes out the plane with the earliest
+    //              deadline, as the simulator does when it crashes.
+    //Parameters:   none
+    //Returns:      Airplane (null if no plane is holding)
+    //Calls:        getFrontHandle()
+    //              remove()
+    //Globals:      none
+    @Override
+    public Airplane dequeue() {
+        int deadlineHandle = byDeadline.getFrontHandle();
+        if (deadlineHandle < 0) {
+            return null;
+        }
+        inLine.remove(lineHandleOf[deadlineHandle]);
+        return byDeadline.remove(deadlineHandle);
+    }
+//******************************************************************************
+
+    @Override
+    public Airplane getFront() {
+        return byDeadline.getFront();
+    }
+//******************************************************************************
+
+    @Override
+    public int getFrontKey() {
+        return byDeadline.getFrontKey();
+    }
+//******************************************************************************
+
+    @Override
+    public boolean isEmpty() {
+        return byDeadline.isEmpty();
+    }
+//******************************************************************************
+
+    @Override
+    public int size() {
+        return byDeadline.size();
+    }
+//******************************************************************************
+
+    @Override
+    public void clear() {
+        byDeadline.clear();
+        inLine.clear();
+    }
+//******************************************************************************
+
+    @Override
+    public java.util.Iterator<Airplane> iterator() {
+        return byDeadline.iterator();
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,29 @@
+//******************************************************************************
+//******************************************************************************
+//Interface:    IndexedQueue
+//Description:  An IntKeyedQueue whose entries can be found by id and reached
+//              through a handle while they are queued, so one entry can leave
+//              the queue or change its key without draining the rest. A
+//              handle stays valid until its entry leaves the queue. The
+//              simulator needs one to divert a plane or to move it up after a
+//              fuel emergency.
+public interface IndexedQueue<T> extends IntKeyedQueue<T> {
+    //********************************************************************
+    //Method:       canFind
+    //Description:  Whether the queue knows its entries' ids, without which
+    //              find throws UnsupportedOperationException.
+    public boolean canFind();
+    //********************************************************************
+    //Method:       find
+    //Description:  The handle of a queued entry with the id, the one nearest
+    //              the front if several share it, or -1 if there is none.
+    public int find(int id);
+    public T get(int handle);
+    public T remove(int handle);
+    //********************************************************************
+    //Method:       updatePriority
+    //Description:  Gives a queued entry a new key and moves it to its place.
+    public void updatePriority(int handle, int newKey);
+}
+//******************************************************************************
+//******************************************************************************
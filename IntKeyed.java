@@ -0,0 +1,9 @@
+//******************************************************************************
+//Interface:    IntKeyed
+//Description:  An entry whose priority is a plain int, smallest first. Queues
+//              that index entries by key (such as CalendarQueue) use it instead
+//              of compareTo. priorityKey must not change while the entry is
+//              queued.
+public interface IntKeyed {
+    public int priorityKey();
+}
@@ -0,0 +1,524 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        IntKeyedHeap
+//Description:  This class is a binary min-heap implementation of
+//              IntKeyedQueue and IndexedQueue. Keys and insertion sequence
+//              numbers live in parallel int and long arrays, so ordering two
+//              entries is two int compares (and a long compare on a tie) that
+//              the JIT inlines, rather than a virtual compareTo that casts its
+//              argument; equal keys leave in the order they came. The heap
+//              holds int handles and each handle records its heap position.
+//              priorityEnqueue, dequeue, remove and updatePriority run in
+//              O(log n), getFront and getFrontKey in O(1), and iteration reads
+//              the heap in dequeue order without changing it.
+//              The handles can be used three ways:
+//              - not at all, as a plain IntKeyedQueue (--queue=intheap);
+//              - through insert, which returns the handle it gives an entry,
+//                so the entry can later be removed or re-keyed in place. A
+//                handle stays valid until its entry leaves, after which it
+//                may be reused. Given an id function (such as a plane's
+//                flight number) the heap also keeps a hash index, and find
+//                looks a handle up by id in O(1) expected time; entries with
+//                the same id share a hash chain, and find returns the one
+//                that would be dequeued first;
+//              - with handles the caller owns, such as PlaneStore rows:
+//                addHandle and pollHandle queue and take bare ints, with no
+//                entry, so nothing is boxed or allocated once the arrays have
+//                grown. A heap used this way must not be given entries too.
+//              It is not Serializable: the id function is usually a lambda.
+public class IntKeyedHeap<T> implements IndexedQueue<T> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int NONE = -1;
+
+    private final java.util.function.ToIntFunction<? super T> idOf;
+    private Object[] entries;
+    private int[] keys;
+    private long[] sequence;
+    private int[] position;
+    private int[] heap;
+    private int size;
+    private long nextSequence;
+    private int handleCount;
+    private int[] freeHandles;
+    private int freeCount;
+    private int[] ids;
+    private int[] nextWithId;
+    private int[] buckets;
+    private int modCount;
+//******************************************************************************
+
+    public IntKeyedHeap() {
+        this(DEFAULT_CAPACITY, null);
+    }
+//******************************************************************************
+
+    public IntKeyedHeap(int initialCapacity) {
+        this(initialCapacity, null);
+    }
+//******************************************************************************
+
+    public IntKeyedHeap(java.util.function.ToIntFunction<? super T> idOf) {
+        this(DEFAULT_CAPACITY, idOf);
+    }
+//******************************************************************************
+
+    //Parameters:   int initialCapacity
+    //              ToIntFunction idOf  id of an entry for find, or null for
+    //                                  no lookup; an entry's id must not
+    //                                  change while it is queued
+    public IntKeyedHeap(int initialCapacity,
+            java.util.function.ToIntFunction<? super T> idOf) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.idOf = idOf;
+        entries = new Object[capacity];
+        keys = new int[capacity];
+        sequence = new long[capacity];
+        position = new int[capacity];
+        heap = new int[capacity];
+        freeHandles = new int[capacity];
+        java.util.Arrays.fill(position, NONE);
+        if (idOf != null) {
+            ids = new int[capacity];
+            nextWithId = new int[capacity];
+            buckets = new int[tableSize(capacity)];
+            java.util.Arrays.fill(buckets, NONE);
+        }
+    }
+//******************************************************************************
+
+    //Method:       insert
+    //Description:  This method adds an entry with its key and returns its
+    //              handle, reusing a freed handle before a new one.
+    //Parameters:   T newEntry, int key
+    //Returns:      int (the entry's handle)
+    //Calls:        grow()
+    //              push()
+    //              link()
+    //Globals:      none
+    public int insert(T newEntry, int key) {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (handleCount == entries.length) {
+                grow(handleCount + 1);
+            }
+            handle = handleCount++;
+        }
+        entries[handle] = newEntry;
+        push(handle, key);
+        if (idOf != null) {
+            ids[handle] = idOf.applyAsInt(newEntry);
+            link(handle);
+        }
+        return handle;
+    }
+//******************************************************************************
+
+    @Override
+    public void priorityEnqueue(T newEntry, int key) {
+        insert(newEntry, key);
+    }
+//******************************************************************************
+
+    //Method:       addHandle
+    //Description:  This method queues a handle the caller owns, with no
+    //              entry. The handle must not already be queued.
+    //Parameters:   int handle, int key
+    //Returns:      nothing
+    //Calls:        grow()
+    //              push()
+    //Globals:      none
+    public void addHandle(int handle, int key) {
+        if (handle >= entries.length) {
+            grow(handle + 1);
+        }
+        handleCount = Math.max(handleCount, handle + 1);
+        push(handle, key);
+    }
+//******************************************************************************
+
+    //Method:       pollHandle
+    //Description:  This method takes the front handle out of the queue and
+    //              returns it without freeing it, for handles the caller
+    //              owns.
+    //Parameters:   none
+    //Returns:      int (-1 if the queue is empty)
+    //Calls:        removeAt()
+    //Globals:      none
+    public int pollHandle() {
+        if (size == 0) {
+            return NONE;
+        }
+        int handle = heap[0];
+        removeAt(0);
+        return handle;
+    }
+//******************************************************************************
+
+    //Method:       dequeue
+    //Description:  This method takes out the front entry and frees its
+    //              handle.
+    //Parameters:   none
+    //Returns:      T (null if the queue is empty)
+    //Calls:        removeAt()
+    //              release()
+    //Globals:      none
+    @Override
+    @SuppressWarnings("unchecked")
+    public T dequeue() {
+        if (size == 0) {
+            return null;
+        }
+        int handle = heap[0];
+        T front = (T) entries[handle];
+        removeAt(0);
+        release(handle);
+        return front;
+    }
+//******************************************************************************
+
+    //Method:       remove
+    //Description:  This method takes one entry out of the queue, wherever it
+    //              is, in O(log n), and frees its handle.
+    //Parameters:   int handle
+    //Returns:      T (the removed entry)
+    //Calls:        check()
+    //              removeAt()
+    //              release()
+    //Globals:      none
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int handle) {
+        check(handle);
+        T entry = (T) entries[handle];
+        removeAt(position[handle]);
+        release(handle);
+        return entry;
+    }
+//******************************************************************************
+
+    //Method:       updatePriority
+    //Description:  This method changes an entry's key and moves it up or down
+    //              to its new place in O(log n). It keeps its insertion order
+    //              among entries with the same key.
+    //Parameters:   int handle, int newKey
+    //Returns:      nothing
+    //Calls:        check()
+    //              siftUp()
+    //              siftDown()
+    //Globals:      none
+    @Override
+    public void updatePriority(int handle, int newKey) {
+        check(handle);
+        int oldKey = keys[handle];
+        keys[handle] = newKey;
+        if (newKey < oldKey) {
+            siftUp(position[handle]);
+        } else if (newKey > oldKey) {
+            siftDown(position[handle]);
+        }
+        modCount++;
+    }
+//******************************************************************************
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int handle) {
+        check(handle);
+        return (T) entries[handle];
+    }
+//******************************************************************************
+
+    public int getKey(int handle) {
+        check(handle);
+        return keys[handle];
+    }
+//******************************************************************************
+
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < handleCount && position[handle] != NONE;
+    }
+//******************************************************************************
+
+    @Override
+    public boolean canFind() {
+        return idOf != null;
+    }
+//******************************************************************************
+
+    //Method:       find
+    //Description:  This method looks up a queued entry by id. When several
+    //              entries share the id, the one nearest the front is chosen.
+    //Parameters:   int id
+    //Returns:      int (handle, or -1 if no queued entry has the id)
+    //Calls:        bucketOf()
+    //              less()
+    //Globals:      none
+    @Override
+    public int find(int id) {
+        if (idOf == null) {
+            throw new UnsupportedOperationException("No id function given");
+        }
+        int best = NONE;
+        for (int handle = buckets[bucketOf(id)]; handle != NONE;
+                handle = nextWithId[handle]) {
+            if (ids[handle] == id && (best == NONE || less(handle, best))) {
+                best = handle;
+            }
+        }
+        return best;
+    }
+//******************************************************************************
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getFront() {
+        return (size == 0) ? null : (T) entries[heap[0]];
+    }
+//******************************************************************************
+
+    @Override
+    public int getFrontKey() {
+        return (size == 0) ? Integer.MAX_VALUE : keys[heap[0]];
+    }
+//******************************************************************************
+
+    //Method:       getFrontHandle
+    //Description:  This method returns the handle of the entry dequeue would
+    //              return, so it can be removed or looked up elsewhere first.
+    //Parameters:   none
+    //Returns:      int (-1 if the queue is empty)
+    //Calls:        nothing
+    //Globals:      none
+    public int getFrontHandle() {
+        return (size == 0) ? NONE : heap[0];
+    }
+//******************************************************************************
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+//******************************************************************************
+
+    @Override
+    public int size() {
+        return size;
+    }
+//******************************************************************************
+
+    @Override
+    public void clear() {
+        java.util.Arrays.fill(entries, 0, handleCount, null);
+        java.util.Arrays.fill(position, 0, handleCount, NONE);
+        if (idOf != null) {
+            java.util.Arrays.fill(buckets, NONE);
+        }
+        size = 0;
+        handleCount = 0;
+        freeCount = 0;
+        modCount++;
+    }
+//******************************************************************************
+
+    //Method:       iterator
+    //Description:  This method returns a read-only HeapIterator over the
+    //              entries in dequeue order.
+    //Parameters:   none
+    //Returns:      Iterator
+    //Calls:        less()
+    //Globals:      none
+    @Override
+    public java.util.Iterator<T> iterator() {
+        return new HeapIterator<T>(size) {
+            private final int expectedModCount = modCount;
+
+            @Override
+            protected boolean less(int i, int j) {
+                return IntKeyedHeap.this.less(heap[i], heap[j]);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            protected T entryAt(int slot) {
+                return (T) entries[heap[slot]];
+            }
+
+            @Override
+            protected boolean changed() {
+                return modCount != expectedModCount;
+            }
+        };
+    }
+//******************************************************************************
+
+    //Method:       push
+    //Description:  This method puts a handle with its key at the bottom of
+    //              the heap, stamped with the next sequence number, and sifts
+    //              it up.
+    //Parameters:   int handle, int key
+    //Returns:      nothing
+    //Calls:        siftUp()
+    //Globals:      none
+    private void push(int handle, int key) {
+        keys[handle] = key;
+        sequence[handle] = nextSequence++;
+        heap[size] = handle;
+        position[handle] = size;
+        siftUp(size++);
+        modCount++;
+    }
+//******************************************************************************
+
+    //Method:       removeAt
+    //Description:  This method removes the handle at a heap position: the
+    //              last handle takes its place and is sifted whichever way it
+    //              needs to go.
+    //Parameters:   int index
+    //Returns:      nothing
+    //Calls:        siftUp()
+    //              siftDown()
+    //              unlink()
+    //Globals:      none
+    private void removeAt(int index) {
+        int handle = heap[index];
+        size--;
+        if (index != size) {
+            int last = heap[size];
+            heap[index] = last;
+            position[last] = index;
+            siftUp(index);
+            siftDown(position[last]);
+        }
+        if (idOf != null) {
+            unlink(handle);
+        }
+        position[handle] = NONE;
+        modCount++;
+    }
+//******************************************************************************
+
+    private void release(int handle) {
+        entries[handle] = null;
+        freeHandles[freeCount++] = handle;
+    }
+//******************************************************************************
+
+    private void check(int handle) {
+        if (!contains(handle)) {
+            throw new IllegalArgumentException("Handle " + handle
+                    + " is not in the queue");
+        }
+    }
+//******************************************************************************
+
+    private boolean less(int handleA, int handleB) {
+        return keys[handleA] < keys[handleB]
+                || (keys[handleA] == keys[handleB]
+                        && sequence[handleA] < sequence[handleB]);
+    }
+//******************************************************************************
+
+    private void siftUp(int index) {
+        int handle = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(handle, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = handle;
+        position[handle] = index;
+    }
+//******************************************************************************
+
+    private void siftDown(int index) {
+        int handle = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], handle)) {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = handle;
+        position[handle] = index;
+    }
+//******************************************************************************
+
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+    }
+//******************************************************************************
+
+    private int bucketOf(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (buckets.length - 1);
+    }
+//******************************************************************************
+
+    private void link(int handle) {
+        int bucket = bucketOf(ids[handle]);
+        nextWithId[handle] = buckets[bucket];
+        buckets[bucket] = handle;
+    }
+//******************************************************************************
+
+    private void unlink(int handle) {
+        int bucket = bucketOf(ids[handle]);
+        if (buckets[bucket] == handle) {
+            buckets[bucket] = nextWithId[handle];
+            return;
+        }
+        int before = buckets[bucket];
+        while (nextWithId[before] != handle) {
+            before = nextWithId[before];
+        }
+        nextWithId[before] = nextWithId[handle];
+    }
+//******************************************************************************
+
+    //Method:       grow
+    //Description:  This method at least doubles every per-handle array and,
+    //              with an id function, the hash table, rehashing the queued
+    //              entries.
+    //Parameters:   int minLength   handles the arrays must hold
+    //Returns:      nothing
+    //Calls:        link()
+    //Globals:      none
+    private void grow(int minLength) {
+        int oldLength = entries.length;
+        int newLength = Math.max(minLength, oldLength * 2);
+        entries = java.util.Arrays.copyOf(entries, newLength);
+        keys = java.util.Arrays.copyOf(keys, newLength);
+        sequence = java.util.Arrays.copyOf(sequence, newLength);
+        position = java.util.Arrays.copyOf(position, newLength);
+        java.util.Arrays.fill(position, oldLength, newLength, NONE);
+        heap = java.util.Arrays.copyOf(heap, newLength);
+        freeHandles = java.util.Arrays.copyOf(freeHandles, newLength);
+        if (idOf != null) {
+            ids = java.util.Arrays.copyOf(ids, newLength);
+            nextWithId = java.util.Arrays.copyOf(nextWithId, newLength);
+            buckets = new int[tableSize(newLength)];
+            java.util.Arrays.fill(buckets, NONE);
+            for (int index = 0; index < size; index++) {
+                link(heap[index]);
+            }
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
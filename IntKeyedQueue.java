@@ -0,0 +1,31 @@
+//******************************************************************************
+//******************************************************************************
+//Interface:    IntKeyedQueue
+//Description:  A TypedQueue whose priority is a primitive int supplied with
+//              each entry, smallest first, with FIFO order among equal keys.
+//              Implementations compare keys as plain ints and never call
+//              compareTo on the entries. An entry's key cannot change while
+//              it is queued.
+public interface IntKeyedQueue<T> extends TypedQueue<T> {
+    public void priorityEnqueue(T newEntry, int key);
+    //********************************************************************
+    //Method:       getFrontKey
+    //Description:  The key of the front entry, or Integer.MAX_VALUE if the
+    //              queue is empty, so it can be used directly as an event time.
+    public int getFrontKey();
+    //********************************************************************
+    //Method:       loadInOrder
+    //Description:  Adds entries listed in dequeue order, with their keys,
+    //              to an empty queue so they come back out in that order.
+    //              Ties are first in, first out, so adding them one at a
+    //              time in order does that, and for a heap each one stays
+    //              where it is put. QueueAdapter hands them to the wrapped
+    //              queue in one batch.
+    default void loadInOrder(java.util.List<? extends T> entries, int[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            priorityEnqueue(entries.get(i), keys[i]);
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -6,12 +6,17 @@
 //Revised:		August 6, 2013
 import java.io.*;
 class KeyboardInputClass {
+	private static final BufferedReader INPUT=new BufferedReader(new InputStreamReader(System.in));
+	private boolean endOfInput=false;
 	//**********************************************************************************************************************
 	//Method:		getKeyboardInput
-	//Description:	Permits keyboard input for strings
+	//Description:	Permits keyboard input for strings. Every instance reads from one shared buffered reader over
+	//				System.in: a reader made per call would throw away whatever it had buffered past the first line,
+	//				which loses lines when input is piped in.
 	//Parameters:	prompt - descriptive text telling the user what to enter
 	//Returns:		inputString	- the entered text (i.e., the user's response). Note that even though this is a string,
 	//								it can be converted to an integer, double, etc. if necessary in the client routine.
+	//								null at the end of the input.
 	//Throws:		Exception (but doesn't do anything with it!)
 	//Calls:		nothing
 	public String getKeyboardInput(String prompt) 
@@ -19,14 +24,25 @@ class KeyboardInputClass {
 		String inputString="";
 		System.out.println(prompt);
 		try {
-			InputStreamReader reader=new InputStreamReader(System.in);
-			BufferedReader buffer=new BufferedReader(reader);
-			inputString=buffer.readLine();
+			inputString=INPUT.readLine();
 		}
 		catch (Exception e) {}
+		if (inputString == null)
+			endOfInput = true;
 		return inputString;
 	}
 	//**********************************************************************************************************************
+	//Method:		atEndOfInput
+	//Description:	Tells whether the input has run out (e.g., a piped file has been read to the end). Once it has, the
+	//				get methods return their defaultResult without waiting or validating, so a caller looping on them
+	//				must check this to stop.
+	//Parameters:	none
+	//Returns:		true if getKeyboardInput has returned null
+	//Calls:		nothing
+	public boolean atEndOfInput() {
+		return endOfInput;
+	}
+	//**********************************************************************************************************************
 	//Method:		getCharacter
 	//Description:	Gets a character (char) from the keyboard. If validateInput=true, the routine loops until the user entry
 	//				matches defaultResult (which may be obtained just by pressing the ENTER key without entering anything)
@@ -61,7 +77,7 @@ class KeyboardInputClass {
 				defaultResult = Character.toLowerCase(defaultResult);
 			}
 			if ((validEntries.indexOf(defaultResult) < 0))								//if default not in validEntries
-				validEntries = (new Character(defaultResult)).toString() + validEntries;//then add it
+				validEntries = String.valueOf(defaultResult) + validEntries;//then add it
 		}
 		String inputString="";
 		char result = defaultResult;
@@ -70,6 +86,8 @@ class KeyboardInputClass {
 			result = defaultResult;
 			entryAccepted = true;
 			inputString = getKeyboardInput(prompt);
+			if (inputString == null)
+				return result;
 			if (inputString.length() > 0) {
 				result = (inputString.charAt(0));
 				if (caseConversionMode == 1)
@@ -110,6 +128,8 @@ class KeyboardInputClass {
 			result = defaultResult;
 			entryAccepted = true;
 			inputString = getKeyboardInput(prompt);
+			if (inputString == null)
+				return result;
 			if (inputString.length() > 0) {
 				try {
 					result = Integer.parseInt(inputString);
@@ -153,6 +173,8 @@ class KeyboardInputClass {
 			result = defaultResult;
 			entryAccepted = true;
 			inputString = getKeyboardInput(prompt);
+			if (inputString == null)
+				return result;
 			if (inputString.length() > 0) {
 				try {
 					result = Long.parseLong(inputString);
@@ -196,6 +218,8 @@ class KeyboardInputClass {
 			result = defaultResult;
 			entryAccepted = true;
 			inputString = getKeyboardInput(prompt);
+			if (inputString == null)
+				return result;
 			if (inputString.length() > 0) {
 				try {
 					result = Double.parseDouble(inputString);
@@ -224,7 +248,7 @@ class KeyboardInputClass {
 	//Calls:		getKeyboardInput
 	public String getString(String defaultResult, String prompt) {
 		String result = getKeyboardInput(prompt);
-		if (result.length() == 0)
+		if (result == null || result.length() == 0)
 			result = defaultResult;
 		return result;
 	}
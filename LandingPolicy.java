@@ -0,0 +1,22 @@
+//******************************************************************************
+//Interface:    LandingPolicy
+//Description:  Decides which holding plane lands when a runway comes free. A
+//              policy orders the holding pattern by a landing key fixed when
+//              the plane arrives, lowest first, and chooseLanding may pick
+//              another plane by looking at the pattern. Crashes do not depend
+//              on the policy: a plane whose fuel runs out still crashes,
+//              wherever it is in the landing order. A policy may keep scratch
+//              state, so each simulator needs its own.
+public interface LandingPolicy {
+    public int landingKey(Airplane plane);
+
+    //Method:       chooseLanding
+    //Description:  The handle of the plane to land now on the given runway,
+    //              first in landing-key order unless the policy overrides it.
+    //              nextLandingTime holds every runway's separation timer as
+    //              it stands before this landing.
+    default int chooseLanding(HoldingPattern holding, int clock, int runway,
+            int[] nextLandingTime, int separation) {
+        return holding.firstInLine();
+    }
+}
@@ -0,0 +1,18 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        LongestWaitFirst
+//Description:  This class is a first-come, first-served LandingPolicy: the
+//              plane that has waited longest, which is the one that arrived
+//              first, lands first. Every holding plane's wait grows by the
+//              same minute each minute, so longest wait first and FIFO are
+//              the same order. It ignores fuel, so planes that arrive short
+//              of fuel behind a long queue crash.
+public class LongestWaitFirst implements LandingPolicy {
+
+    @Override
+    public int landingKey(Airplane plane) {
+        return plane.arrival;
+    }
+}
+//******************************************************************************
+//******************************************************************************
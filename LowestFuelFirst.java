@@ -0,0 +1,18 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        LowestFuelFirst
+//Description:  This class is the original landing rule as a LandingPolicy:
+//              the plane with the least fuel left, which is the earliest
+//              deadline, lands first, and planes with the same deadline land
+//              in arrival order. It lands the same planes as the plain
+//              deadline queue, which is what the simulator uses when no
+//              policy is chosen.
+public class LowestFuelFirst implements LandingPolicy {
+
+    @Override
+    public int landingKey(Airplane plane) {
+        return plane.deadline;
+    }
+}
+//******************************************************************************
+//******************************************************************************
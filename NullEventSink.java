@@ -0,0 +1,50 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        NullEventSink
+//Description:  This class is an EventSink that ignores every event, for runs
+//              where only the totals matter.
+public class NullEventSink implements EventSink {
+
+    public static final NullEventSink INSTANCE = new NullEventSink();
+//******************************************************************************
+
+    @Override
+    public void onArrival(int clock, int airline, int flightNum, int fuelLeft) {
+    }
+//******************************************************************************
+
+    @Override
+    public void onLanding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+    }
+//******************************************************************************
+
+    @Override
+    public void onCrash(int clock, int airline, int flightNum, int wait) {
+    }
+//******************************************************************************
+
+    @Override
+    public void onHolding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+    }
+//******************************************************************************
+
+    @Override
+    public void onDiversion(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+    }
+//******************************************************************************
+
+    @Override
+    public void onEmergency(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+    }
+//******************************************************************************
+
+    @Override
+    public void close() {
+    }
+}
+//******************************************************************************
+//******************************************************************************
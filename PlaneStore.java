@@ -0,0 +1,95 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        PlaneStore
+//Description:  This class keeps planes as rows of parallel primitive arrays
+//              instead of Airplane objects. A plane is an int handle (its row);
+//              the airline is stored as a byte index into Airplane.AIRLINES.
+//              Released rows go on a free list and are handed out again by
+//              allocate, so once the store has grown to the largest number of
+//              planes held at one time, adding and removing planes allocates
+//              nothing.
+public class PlaneStore {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    byte[] airline;
+    int[] flightNum;
+    int[] arrival;
+    int[] deadline;
+    private int[] nextFree;
+    private int freeHead;
+    private int used;
+    private int size;
+//******************************************************************************
+
+    public PlaneStore() {
+        this(DEFAULT_CAPACITY);
+    }
+//******************************************************************************
+
+    public PlaneStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        airline = new byte[capacity];
+        flightNum = new int[capacity];
+        arrival = new int[capacity];
+        deadline = new int[capacity];
+        nextFree = new int[capacity];
+        freeHead = -1;
+        used = 0;
+        size = 0;
+    }
+//******************************************************************************
+
+    //Method:       allocate
+    //Description:  This method stores a plane in a free row, reusing released
+    //              rows before new ones.
+    //Parameters:   int airlineCode     index into Airplane.AIRLINES
+    //              int flight          flight number
+    //              int arrivalTime     minute the plane arrived
+    //              int fuel            minutes of fuel at arrival
+    //Returns:      int (the plane's handle)
+    //Calls:        grow()
+    //Globals:      none
+    public int allocate(int airlineCode, int flight, int arrivalTime, int fuel) {
+        int handle;
+        if (freeHead >= 0) {
+            handle = freeHead;
+            freeHead = nextFree[handle];
+        } else {
+            if (used == airline.length) {
+                grow();
+            }
+            handle = used++;
+        }
+        airline[handle] = (byte) airlineCode;
+        flightNum[handle] = flight;
+        arrival[handle] = arrivalTime;
+        deadline[handle] = arrivalTime + fuel;
+        size++;
+        return handle;
+    }
+//******************************************************************************
+
+    public void release(int handle) {
+        nextFree[handle] = freeHead;
+        freeHead = handle;
+        size--;
+    }
+//******************************************************************************
+
+    public int size() {
+        return size;
+    }
+//******************************************************************************
+
+    private void grow() {
+        int newLength = airline.length * 2;
+        airline = java.util.Arrays.copyOf(airline, newLength);
+        flightNum = java.util.Arrays.copyOf(flightNum, newLength);
+        arrival = java.util.Arrays.copyOf(arrival, newLength);
+        deadline = java.util.Arrays.copyOf(deadline, newLength);
+        nextFree = java.util.Arrays.copyOf(nextFree, newLength);
+    }
+}
+//******************************************************************************
+//******************************************************************************
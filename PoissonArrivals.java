@@ -0,0 +1,90 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        PoissonArrivals
+//Description:  This class is an ArrivalSource that generates planes by a
+//              Poisson process with a fixed mean rate per minute. Gaps between
+//              arrivals are exponential; an arrival happens in the minute its
+//              continuous arrival time falls in, so several planes can arrive
+//              in the same minute. Fuel is uniform between minFuel and maxFuel
+//              and every draw comes from the source's own RandomSource.
+public class PoissonArrivals implements ArrivalSource {
+
+    private final RandomSource random;
+    private final double rate;
+    private final int minFuel;
+    private final int maxFuel;
+    private final int endTime;
+    private double nextTime;
+//******************************************************************************
+
+    //Parameters:   RandomSource random         stream used only by this source
+    //              double rate                 mean arrivals per minute
+    //              int minFuel                 least fuel an arrival can have
+    //              int maxFuel                 most fuel an arrival can have
+    //              int startTime               first minute of an arrival
+    //              int endTime                 no arrivals from this minute on
+    public PoissonArrivals(RandomSource random, double rate, int minFuel,
+            int maxFuel, int startTime, int endTime) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        if (minFuel < 0 || maxFuel < minFuel) {
+            throw new IllegalArgumentException("Invalid fuel range "
+                    + minFuel + "-" + maxFuel);
+        }
+        this.random = random;
+        this.rate = rate;
+        this.minFuel = minFuel;
+        this.maxFuel = maxFuel;
+        this.endTime = endTime;
+        this.nextTime = startTime + gap();
+    }
+//******************************************************************************
+
+    @Override
+    public int nextArrivalTime() {
+        return (nextTime < endTime) ? (int) nextTime : Integer.MAX_VALUE;
+    }
+//******************************************************************************
+
+    @Override
+    public Airplane nextArrival() {
+        int arrival = (int) nextTime;
+        nextTime += gap();
+        return new Airplane(random, arrival, minFuel, maxFuel);
+    }
+//******************************************************************************
+
+    //Method:       nextArrival
+    //Description:  This method is the allocation-free form of nextArrival for
+    //              CompactSimulator. It makes the same draws in the same order
+    //              as the Airplane constructor, so a seed gives the same planes
+    //              either way.
+    //Parameters:   PlaneStore store
+    //Returns:      int (the new plane's handle in store)
+    //Calls:        gap()
+    //              nextInt()
+    //              allocate()
+    //Globals:      none
+    public int nextArrival(PlaneStore store) {
+        int arrival = (int) nextTime;
+        nextTime += gap();
+        int airline = random.nextInt(Airplane.AIRLINES.length);
+        int flightNum = random.nextInt(9000) + 1000;
+        int fuel = random.nextInt(maxFuel - minFuel + 1) + minFuel;
+        return store.allocate(airline, flightNum, arrival, fuel);
+    }
+//******************************************************************************
+
+    //Method:       gap
+    //Description:  This method draws an exponential inter-arrival time.
+    //Parameters:   none
+    //Returns:      double
+    //Calls:        nextDouble()
+    //Globals:      none
+    private double gap() {
+        return -Math.log(1.0 - random.nextDouble()) / rate;
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,169 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        PolicyComparison
+//Description:  This class runs the same batch workload under several landing
+//              policies and prints them side by side: crashes, crash rate,
+//              throughput in landings per runway-hour, and wait percentiles.
+//              As in ReplicationRunner, one random stream is split from the
+//              batch seed per replication, but here each stream is copied
+//              for every policy, so replication i sees exactly the same
+//              arrivals under every policy and only the landing order
+//              differs. Every (policy, replication) pair is one task on a
+//              ForkJoinPool with its own simulator, stats and WaitHistogram,
+//              so the results do not depend on the number of threads.
+//              Example: java AirportSimulator --batch --policy=all
+//                       --rate=0.48 --replications=8
+public class PolicyComparison {
+
+    static final String[] ALL_POLICIES = {"fuel", "fifo", "lookahead"};
+
+    private final BatchSimulation[] batches;
+    private final String[] policies;
+    private final int threads;
+    private final SimulationStats[][] stats;
+    private final WaitHistogram[][] waits;
+//******************************************************************************
+
+    public PolicyComparison(BatchSimulation batch, String[] policies,
+            int threads) {
+        this.policies = policies.clone();
+        this.threads = Math.max(threads, 1);
+        batches = new BatchSimulation[policies.length];
+        for (int p = 0; p < policies.length; p++) {
+            AirportSimulator.createLandingPolicy(policies[p]); //fail early
+            batches[p] = batch.withPolicy(policies[p]);
+        }
+        int replications = Math.max(batch.replications, 1);
+        stats = new SimulationStats[policies.length][replications];
+        waits = new WaitHistogram[policies.length][replications];
+    }
+//******************************************************************************
+
+    //Method:       run
+    //Description:  This method splits one stream state per replication and
+    //              runs every policy on every replication in parallel.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        split()
+    //              invoke()
+    //Globals:      none
+    public void run() {
+        SplitMixRandom master = new SplitMixRandom(batches[0].seed);
+        SplitMixRandom[] streams = new SplitMixRandom[stats[0].length];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = (SplitMixRandom) master.split();
+        }
+        java.util.concurrent.ForkJoinPool pool =
+                new java.util.concurrent.ForkJoinPool(threads);
+        try {
+            pool.invoke(new Runs(streams, 0, policies.length * streams.length));
+        } finally {
+            pool.shutdown();
+        }
+    }
+//******************************************************************************
+
+    //Method:       runAndReport
+    //Description:  This method runs the comparison and prints one row per
+    //              policy. Crash rate and throughput are 95% confidence
+    //              intervals over the replications; the wait percentiles are
+    //              over every landing in all of them.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        run()
+    //              merge()
+    //              interval()
+    //              percentile()
+    //Globals:      none
+    public void runAndReport() {
+        long start = System.nanoTime();
+        run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        BatchSimulation batch = batches[0];
+        double runwayHours = (double) batch.runways * batch.duration / 60.0;
+        int replications = stats[0].length;
+        System.out.println(policies.length + " policies x " + replications
+                + " replication(s) of " + batch.duration + " minutes on "
+                + threads + " thread(s)");
+        System.out.println(String.format("%-10s %9s %22s %22s %8s %5s %5s %5s "
+                + "%5s", "Policy", "Crashes", "Crash rate",
+                "Landings/runway-hr", "Mean", "p50", "p90", "p99", "Max"));
+        for (int p = 0; p < policies.length; p++) {
+            SimulationStats total = new SimulationStats();
+            WaitHistogram allWaits = new WaitHistogram();
+            double[] crashRates = new double[replications];
+            double[] throughputs = new double[replications];
+            for (int i = 0; i < replications; i++) {
+                SimulationStats run = stats[p][i];
+                total.merge(run);
+                allWaits.merge(waits[p][i]);
+                crashRates[i] = (run.arrivals == 0) ? 0.0
+                        : (double) run.crashes / run.arrivals;
+                throughputs[i] = run.landings / runwayHours;
+            }
+            System.out.println(String.format("%-10s %9d %22s %22s %8.3f %5d "
+                    + "%5d %5d %5d", policies[p], total.crashes,
+                    ReplicationRunner.interval(crashRates, "%.6f"),
+                    ReplicationRunner.interval(throughputs, "%.4f"),
+                    total.meanWait(), allWaits.percentile(50),
+                    allWaits.percentile(90), allWaits.percentile(99),
+                    allWaits.max()));
+        }
+        System.out.println(String.format("Ran in %.3f s", seconds));
+    }
+//******************************************************************************
+//******************************************************************************
+
+    //Class:        WaitRecorder
+    //Description:  An EventSink that records the wait of each landed plane.
+    private static class WaitRecorder extends NullEventSink {
+
+        private final WaitHistogram waits = new WaitHistogram();
+
+        @Override
+        public void onLanding(int clock, int airline, int flightNum,
+                int fuelLeft, int wait) {
+            waits.record(wait);
+        }
+    }
+//******************************************************************************
+
+    //Class:        Runs
+    //Description:  A fork/join task for a range of (policy, replication)
+    //              runs, numbered policy by policy. Ranges are split in half
+    //              until a single run is left, which gets a fresh copy of its
+    //              replication's stream.
+    private class Runs extends java.util.concurrent.RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final SplitMixRandom[] streams;
+        private final int from;
+        private final int to;
+
+        private Runs(SplitMixRandom[] streams, int from, int to) {
+            this.streams = streams;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int policy = from / streams.length;
+                int replication = from % streams.length;
+                SplitMixRandom stream = streams[replication];
+                WaitRecorder recorder = new WaitRecorder();
+                stats[policy][replication] = batches[policy].run(
+                        new SplitMixRandom(stream.getSeed(), stream.getGamma()),
+                        recorder);
+                waits[policy][replication] = recorder.waits;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Runs(streams, from, middle),
+                    new Runs(streams, middle, to));
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
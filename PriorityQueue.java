@@ -1,12 +1,16 @@
 //************************************************************************
 //************************************************************************
 public class PriorityQueue implements QueueInterface, java.io.Serializable {
+	private static final long serialVersionUID = 1L;
 	private Node firstNode;
 	private Node lastNode;
+	private int size;
+	private transient int modCount;
 	//********************************************************************
 	public PriorityQueue() {
 		firstNode = null;
 		lastNode = null;
+		size = 0;
 	}
 	//********************************************************************
     //Method:       priorityEnqueue
@@ -18,7 +22,7 @@ public class PriorityQueue implements QueueInterface, java.io.Serializable {
     //              getNextNode()
     //              setNextNode()
     //Globals:      none
-	public void priorityEnqueue(Comparable newEntry) {
+	public void priorityEnqueue(Comparable<Object> newEntry) {
         Node newNode = new Node(newEntry);
         Node currentNode = firstNode;
 		Node nodeBefore = null;
@@ -37,8 +41,41 @@ public class PriorityQueue implements QueueInterface, java.io.Serializable {
 			newNode.setNextNode(nodeAfter);
 			nodeBefore.setNextNode(newNode);
 		}
+		if (newNode.getNextNode() == null)
+			lastNode = newNode;
+		size++;
+		modCount++;
     }
     //********************************************************************
+    //Method:       priorityEnqueueLast
+    //Description:  This method enqueues items in prioritized order like
+    //              priorityEnqueue, but behind the entries equal to the new
+    //              one instead of in front of them.
+    //Parameters:   Comparable newEntry
+    //Returns:      nothing
+    //Calls:        compareTo()
+    //              getData()
+    //              getNextNode()
+    //              setNextNode()
+    //Globals:      none
+	public void priorityEnqueueLast(Comparable<Object> newEntry) {
+		Node nodeBefore = null;
+		Node currentNode = firstNode;
+		while ((currentNode != null) && (newEntry.compareTo(currentNode.getData()) >= 0)) {
+			nodeBefore = currentNode;
+			currentNode = currentNode.getNextNode();
+		}
+		Node newNode = new Node(newEntry, currentNode);
+		if (nodeBefore == null)
+			firstNode = newNode;
+		else
+			nodeBefore.setNextNode(newNode);
+		if (currentNode == null)
+			lastNode = newNode;
+		size++;
+		modCount++;
+	}
+	//********************************************************************
     public void enqueue(Object newEntry) {
 		Node newNode = new Node(newEntry, null);
 		if (isEmpty())
@@ -46,6 +83,8 @@ public class PriorityQueue implements QueueInterface, java.io.Serializable {
 		else
 			lastNode.setNextNode(newNode);
 		lastNode = newNode;
+		size++;
+		modCount++;
 	}
 	//********************************************************************
 	public Object dequeue() {
@@ -55,10 +94,86 @@ public class PriorityQueue implements QueueInterface, java.io.Serializable {
 			firstNode = firstNode.getNextNode();
 			if (firstNode == null)
 				lastNode = null;
+			size--;
+			modCount++;
 		}
 		return front;
 	}
 	//********************************************************************
+    //Method:       dequeueLastTied
+    //Description:  This method removes the last of the entries equal to the
+    //              front one, which is the front itself if nothing ties it.
+    //Parameters:   none
+    //Returns:      Object (null if the queue is empty)
+    //Calls:        compareTo()
+    //              getData()
+    //              getNextNode()
+    //              setNextNode()
+    //Globals:      none
+	@SuppressWarnings("unchecked")
+	public Object dequeueLastTied() {
+		if (isEmpty())
+			return null;
+		Comparable<Object> front = (Comparable<Object>) firstNode.getData();
+		Node nodeBefore = null;
+		Node currentNode = firstNode;
+		while ((currentNode.getNextNode() != null)
+				&& (front.compareTo(currentNode.getNextNode().getData()) == 0)) {
+			nodeBefore = currentNode;
+			currentNode = currentNode.getNextNode();
+		}
+		Node nodeAfter = currentNode.getNextNode();
+		if (nodeBefore == null)
+			firstNode = nodeAfter;
+		else
+			nodeBefore.setNextNode(nodeAfter);
+		if (nodeAfter == null)
+			lastNode = nodeBefore;
+		size--;
+		modCount++;
+		return currentNode.getData();
+	}
+	//********************************************************************
+    //Method:       reverseTies
+    //Description:  This method reverses every run of equal entries in place,
+    //              leaving the runs themselves in priority order.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        compareTo()
+    //              getData()
+    //              getNextNode()
+    //              setNextNode()
+    //Globals:      none
+	@SuppressWarnings("unchecked")
+	public void reverseTies() {
+		Node nodeBefore = null;
+		Node runStart = firstNode;
+		while (runStart != null) {
+			Comparable<Object> entry = (Comparable<Object>) runStart.getData();
+			Node runEnd = runStart;
+			while ((runEnd.getNextNode() != null)
+					&& (entry.compareTo(runEnd.getNextNode().getData()) == 0))
+				runEnd = runEnd.getNextNode();
+			Node nodeAfter = runEnd.getNextNode();
+			Node previousNode = nodeAfter;
+			Node currentNode = runStart;
+			while (currentNode != nodeAfter) {
+				Node nextNode = currentNode.getNextNode();
+				currentNode.setNextNode(previousNode);
+				previousNode = currentNode;
+				currentNode = nextNode;
+			}
+			if (nodeBefore == null)
+				firstNode = runEnd;
+			else
+				nodeBefore.setNextNode(runEnd);
+			nodeBefore = runStart;
+			runStart = nodeAfter;
+		}
+		lastNode = nodeBefore;
+		modCount++;
+	}
+	//********************************************************************
 	public Object getFront() {
 		Object front = null;
 		if (!isEmpty())
@@ -73,6 +188,148 @@ public class PriorityQueue implements QueueInterface, java.io.Serializable {
 	public void clear() {
 		firstNode = null;
 		lastNode = null;
+		size = 0;
+		modCount++;
+	}
+	//********************************************************************
+	public int size() {
+		return size;
+	}
+	//********************************************************************
+    //Method:       iterator
+    //Description:  This method walks the list from the front without
+    //              changing it, so entries come out in dequeue order.
+    //              Changing the queue during iteration makes the iterator
+    //              throw ConcurrentModificationException.
+    //Parameters:   none
+    //Returns:      Iterator (read-only)
+    //Calls:        getData()
+    //              getNextNode()
+    //Globals:      none
+	public java.util.Iterator<Object> iterator() {
+		return new java.util.Iterator<Object>() {
+			private Node currentNode = firstNode;
+			private final int expectedModCount = modCount;
+
+			public boolean hasNext() {
+				return currentNode != null;
+			}
+
+			public Object next() {
+				if (modCount != expectedModCount)
+					throw new java.util.ConcurrentModificationException();
+				if (currentNode == null)
+					throw new java.util.NoSuchElementException();
+				Object data = currentNode.getData();
+				currentNode = currentNode.getNextNode();
+				return data;
+			}
+		};
+	}
+	//********************************************************************
+    //Method:       peekTopK
+    //Description:  This method copies the first k entries without removing
+    //              them.
+    //Parameters:   int k
+    //Returns:      Object[] (fewer than k entries if the queue is shorter)
+    //Calls:        getData()
+    //              getNextNode()
+    //Globals:      none
+	public Object[] peekTopK(int k) {
+		Object[] top = new Object[Math.max(0, Math.min(k, size))];
+		Node currentNode = firstNode;
+		for (int i = 0; i < top.length; i++) {
+			top[i] = currentNode.getData();
+			currentNode = currentNode.getNextNode();
+		}
+		return top;
+	}
+	//********************************************************************
+    //Method:       priorityEnqueueAll
+    //Description:  This method sorts the new entries and merges them into
+    //              the list in one pass, in O(n + k log k) instead of O(n)
+    //              per entry. Like priorityEnqueue, an entry goes in front of
+    //              entries equal to it, so equal new entries are sorted in
+    //              reverse and the result matches adding them one at a time.
+    //Parameters:   Collection newEntries
+    //Returns:      nothing
+    //Calls:        compareTo()
+    //              getData()
+    //              getNextNode()
+    //              setNextNode()
+    //Globals:      none
+	public void priorityEnqueueAll(java.util.Collection<? extends Comparable<Object>> newEntries) {
+		Object[] sorted = newEntries.toArray();
+		java.util.Collections.reverse(java.util.Arrays.asList(sorted));
+		java.util.Arrays.sort(sorted);
+		Node nodeBefore = null;
+		Node currentNode = firstNode;
+		for (Object entry : sorted) {
+			@SuppressWarnings("unchecked")
+			Comparable<Object> newEntry = (Comparable<Object>) entry;
+			while ((currentNode != null) && (newEntry.compareTo(currentNode.getData()) > 0)) {
+				nodeBefore = currentNode;
+				currentNode = currentNode.getNextNode();
+			}
+			Node newNode = new Node(newEntry, currentNode);
+			if (nodeBefore == null)
+				firstNode = newNode;
+			else
+				nodeBefore.setNextNode(newNode);
+			if (currentNode == null)
+				lastNode = newNode;
+			nodeBefore = newNode;
+			size++;
+		}
+		modCount++;
+	}
+	//********************************************************************
+    //Method:       loadInOrder
+    //Description:  This method adds entries listed in dequeue order to an
+    //              empty queue. priorityEnqueueAll puts a new entry in front
+    //              of equal ones, so it is given the entries in reverse.
+    //Parameters:   List entries
+    //Returns:      nothing
+    //Calls:        priorityEnqueueAll()
+    //Globals:      none
+	public void loadInOrder(java.util.List<? extends Comparable<Object>> entries) {
+		java.util.List<Comparable<Object>> reversed = new java.util.ArrayList<>(entries);
+		java.util.Collections.reverse(reversed);
+		priorityEnqueueAll(reversed);
+	}
+	//********************************************************************
+    //Method:       removeIf
+    //Description:  This method unlinks every entry the filter accepts in one
+    //              walk of the list.
+    //Parameters:   Predicate filter
+    //Returns:      int (number of entries removed)
+    //Calls:        test()
+    //              getData()
+    //              getNextNode()
+    //              setNextNode()
+    //Globals:      none
+	public int removeIf(java.util.function.Predicate<Object> filter) {
+		int removed = 0;
+		Node nodeBefore = null;
+		Node currentNode = firstNode;
+		while (currentNode != null) {
+			Node nodeAfter = currentNode.getNextNode();
+			if (filter.test(currentNode.getData())) {
+				if (nodeBefore == null)
+					firstNode = nodeAfter;
+				else
+					nodeBefore.setNextNode(nodeAfter);
+				removed++;
+			}
+			else
+				nodeBefore = currentNode;
+			currentNode = nodeAfter;
+		}
+		lastNode = nodeBefore;
+		size -= removed;
+		if (removed > 0)
+			modCount++;
+		return removed;
 	}
 	//********************************************************************
 	//********************************************************************
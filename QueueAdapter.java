@@ -0,0 +1,103 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        QueueAdapter
+//Description:  This class lets any QueueInterface implementation be used
+//              where an IntKeyedQueue is expected. The wrapped queue still
+//              orders entries with compareTo, so the key passed to
+//              priorityEnqueue is not stored: entries must be IntKeyed and
+//              their compareTo must agree with priorityKey (as Airplane's does
+//              with its deadline). The casts the old API needs are made here,
+//              once, instead of at every caller.
+public class QueueAdapter<T extends IntKeyed> implements IntKeyedQueue<T> {
+
+    private final QueueInterface queue;
+//******************************************************************************
+
+    public QueueAdapter(QueueInterface queue) {
+        this.queue = queue;
+    }
+//******************************************************************************
+
+    //Method:       priorityEnqueue
+    //Description:  This method passes the entry to the wrapped queue, which
+    //              places it by compareTo.
+    //Parameters:   T newEntry
+    //              int key         must equal newEntry.priorityKey()
+    //Returns:      nothing
+    //Calls:        priorityEnqueue()
+    //Globals:      none
+    @Override
+    @SuppressWarnings("unchecked")
+    public void priorityEnqueue(T newEntry, int key) {
+        queue.priorityEnqueue((Comparable<Object>) newEntry);
+    }
+//******************************************************************************
+
+    //Method:       loadInOrder
+    //Description:  This method passes entries listed in dequeue order to the
+    //              wrapped queue's loadInOrder in one batch. As with
+    //              priorityEnqueue, the keys are not needed.
+    //Parameters:   List entries, int[] keys
+    //Returns:      nothing
+    //Calls:        loadInOrder()
+    //Globals:      none
+    @Override
+    @SuppressWarnings("unchecked")
+    public void loadInOrder(java.util.List<? extends T> entries, int[] keys) {
+        queue.loadInOrder((java.util.List<? extends Comparable<Object>>)
+                (java.util.List<?>) entries);
+    }
+//******************************************************************************
+
+    public QueueInterface getQueue() {
+        return queue;
+    }
+//******************************************************************************
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T dequeue() {
+        return (T) queue.dequeue();
+    }
+//******************************************************************************
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getFront() {
+        return (T) queue.getFront();
+    }
+//******************************************************************************
+
+    @Override
+    public int getFrontKey() {
+        T front = getFront();
+        return (front == null) ? Integer.MAX_VALUE : front.priorityKey();
+    }
+//******************************************************************************
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+//******************************************************************************
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+//******************************************************************************
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+//******************************************************************************
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public java.util.Iterator<T> iterator() {
+        return (java.util.Iterator<T>) (java.util.Iterator<?>) queue.iterator();
+    }
+}
+//******************************************************************************
+//******************************************************************************
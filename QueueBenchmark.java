@@ -0,0 +1,128 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        QueueBenchmark
+//Description:  This class compares QueueInterface implementations with the
+//              "hold" model of a holding pattern at steady depth: each
+//              operation dequeues the plane with the earliest deadline and
+//              enqueues a new plane whose deadline is 1 to 20 minutes after the
+//              dequeued one. The queue is first filled to the given depth with
+//              one priorityEnqueueAll, which sorts and merges for the linked
+//              list, so large depths can be set up. Each queue and depth
+//              runs until a time budget is spent, and the result is the mean
+//              time per dequeue/enqueue pair. "intheap" is the IntKeyedHeap,
+//              driven through its typed API with the deadline as the key.
+//              Usage: java QueueBenchmark [list,heap,calendar,intheap]
+//                                         [budgetMillis]
+public class QueueBenchmark {
+
+    private static final int[] DEPTHS = {10, 100, 1000, 10000, 100000, 1000000};
+    private static final int KEY_SPREAD = 20;
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method warms every queue up and then prints a table of
+    //              nanoseconds per hold operation by queue and depth.
+    //Parameters:   String[] args
+    //Returns:      nothing
+    //Calls:        hold()
+    //Globals:      none
+    public static void main(String[] args) {
+        String[] kinds = (args.length > 0) ? args[0].split(",")
+                : new String[] {"list", "heap", "calendar", "intheap"};
+        long budget = (args.length > 1) ? Long.parseLong(args[1]) : 500;
+        for (String kind : kinds) {
+            hold(kind, 1000, 200);
+        }
+        StringBuilder header = new StringBuilder(String.format("%-10s", "depth"));
+        for (String kind : kinds) {
+            header.append(String.format("%16s", kind + " ns/op"));
+        }
+        System.out.println(header);
+        for (int depth : DEPTHS) {
+            StringBuilder row = new StringBuilder(String.format("%-10d", depth));
+            for (String kind : kinds) {
+                row.append(String.format("%16.1f", hold(kind, depth, budget)));
+            }
+            System.out.println(row);
+        }
+    }
+//******************************************************************************
+
+    //Method:       hold
+    //Description:  This method fills a queue to depth and times hold
+    //              operations until the budget runs out.
+    //Parameters:   String kind         queue name for createQueue
+    //              int depth           planes kept in the queue
+    //              long budgetMillis   how long to measure
+    //Returns:      double (nanoseconds per operation)
+    //Calls:        holdIntKeyed()
+    //              createQueue()
+    //              priorityEnqueueAll()
+    //              priorityEnqueue()
+    //              dequeue()
+    //Globals:      none
+    static double hold(String kind, int depth, long budgetMillis) {
+        if (kind.equals("intheap")) {
+            return holdIntKeyed(depth, budgetMillis);
+        }
+        QueueInterface queue = AirportSimulator.createQueue(kind);
+        RandomSource random = new SplitMixRandom(depth);
+        java.util.List<Airplane> planes = new java.util.ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            planes.add(new Airplane(0, 1000, 0, random.nextInt(KEY_SPREAD) + 1));
+        }
+        queue.priorityEnqueueAll(planes);
+        long deadline = System.nanoTime() + budgetMillis * 1000000L;
+        long operations = 0;
+        long start = System.nanoTime();
+        long now = start;
+        while (now < deadline) {
+            for (int i = 0; i < 64; i++) {
+                Airplane front = (Airplane) queue.dequeue();
+                queue.priorityEnqueue(new Airplane(0, 1000, 0,
+                        front.deadline + random.nextInt(KEY_SPREAD) + 1));
+            }
+            operations += 64;
+            now = System.nanoTime();
+        }
+        return (double) (now - start) / operations;
+    }
+//******************************************************************************
+
+    //Method:       holdIntKeyed
+    //Description:  This method is hold for an IntKeyedHeap, passing each
+    //              plane's deadline as its key.
+    //Parameters:   int depth, long budgetMillis
+    //Returns:      double (nanoseconds per operation)
+    //Calls:        priorityEnqueue()
+    //              dequeue()
+    //Globals:      none
+    static double holdIntKeyed(int depth, long budgetMillis) {
+        IntKeyedQueue<Airplane> queue = new IntKeyedHeap<>();
+        RandomSource random = new SplitMixRandom(depth);
+        int[] keys = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            keys[i] = random.nextInt(KEY_SPREAD) + 1;
+        }
+        java.util.Arrays.sort(keys);
+        for (int i = depth - 1; i >= 0; i--) {
+            queue.priorityEnqueue(new Airplane(0, 1000, 0, keys[i]), keys[i]);
+        }
+        long deadline = System.nanoTime() + budgetMillis * 1000000L;
+        long operations = 0;
+        long start = System.nanoTime();
+        long now = start;
+        while (now < deadline) {
+            for (int i = 0; i < 64; i++) {
+                Airplane front = queue.dequeue();
+                int key = front.deadline + random.nextInt(KEY_SPREAD) + 1;
+                queue.priorityEnqueue(new Airplane(0, 1000, 0, key), key);
+            }
+            operations += 64;
+            now = System.nanoTime();
+        }
+        return (double) (now - start) / operations;
+    }
+}
+//******************************************************************************
+//******************************************************************************
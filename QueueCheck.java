@@ -0,0 +1,553 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        QueueCheck
+//Description:  This class checks the handle-based queues against simple
+//              reference models over long random runs of operations. The
+//              models are TreeSets ordered by key and then by insertion
+//              number, which is the order the heaps promise.
+//              - IntKeyedHeap with an id function: insert, dequeue, remove,
+//                updatePriority and find, so handles are freed and reused,
+//                positions move both ways and ids share hash chains.
+//              - IntKeyedHeap with caller-owned handles: addHandle and
+//                pollHandle, as CompactSimulator uses it.
+//              - HoldingPattern under every landing policy: arrivals,
+//                crashes, landings, diversions and fuel emergencies, checked
+//                against one model per heap, so the handles linking the two
+//                heaps are checked as well.
+//              - removeIf, enqueue and drainTo of every QueueInterface
+//                queue, against the queue's own order before each call.
+//              - the list queue's tie operations, priorityEnqueueLast,
+//                dequeueLastTied and reverseTies, against a plain list.
+//              After every operation the size and the front are compared;
+//              every few hundred the whole order, by iteration, is. Keys
+//              and ids come from small ranges so that ties and shared ids are
+//              common. It prints one line per check and exits with status 1
+//              if any fails.
+//              Usage: java QueueCheck [--steps=<n>] [--seed=<n>]
+public class QueueCheck {
+
+    private static final int KEYS = 40;
+    private static final int IDS = 150;
+    private static final int MAX_SIZE = 400;
+    private static final int FULL_CHECK_EVERY = 500;
+    private static final String[] BULK_KINDS = {"list", "heap", "calendar",
+        "concurrent"};
+
+    private final int steps;
+    private final long seed;
+    private RandomSource random;
+    private int step;
+//******************************************************************************
+
+    public QueueCheck(int steps, long seed) {
+        this.steps = steps;
+        this.seed = seed;
+    }
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method runs every check and reports each one.
+    //Parameters:   String[] args
+    //Returns:      nothing
+    //Calls:        run()
+    //Globals:      none
+    public static void main(String[] args) {
+        int steps = 300000;
+        long seed = 1;
+        for (String arg : args) {
+            if (arg.startsWith("--steps=")) {
+                steps = Integer.parseInt(arg.substring("--steps=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (!new QueueCheck(steps, seed).run()) {
+            System.exit(1);
+        }
+    }
+//******************************************************************************
+
+    //Method:       run
+    //Description:  This method runs every check with a fresh random stream
+    //              from the seed and prints one line for each.
+    //Parameters:   none
+    //Returns:      boolean (true if every check passed)
+    //Calls:        checkHeap()
+    //              checkOwnedHandles()
+    //              checkHoldingPattern()
+    //              checkBulk()
+    //              checkListTies()
+    //Globals:      none
+    public boolean run() {
+        boolean passed = true;
+        passed &= report("IntKeyedHeap", this::checkHeap);
+        passed &= report("owned handles", this::checkOwnedHandles);
+        for (String policy : PolicyComparison.ALL_POLICIES) {
+            passed &= report("HoldingPattern " + policy,
+                    () -> checkHoldingPattern(policy));
+        }
+        for (String kind : BULK_KINDS) {
+            passed &= report("bulk " + kind, () -> checkBulk(kind));
+        }
+        passed &= report("list ties", this::checkListTies);
+        return passed;
+    }
+//******************************************************************************
+
+    private boolean report(String name, Runnable check) {
+        random = new SplitMixRandom(seed);
+        step = 0;
+        try {
+            check.run();
+            System.out.println(String.format("%-26s ok", name));
+            return true;
+        } catch (IllegalStateException e) {
+            System.out.println(String.format("%-26s FAILED at step %d: %s",
+                    name, step, e.getMessage()));
+            return false;
+        }
+    }
+//******************************************************************************
+
+    //Method:       checkHeap
+    //Description:  This method runs random inserts, dequeues, removes, key
+    //              changes and lookups on an IntKeyedHeap that finds entries
+    //              by flight number.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        insert()
+    //              dequeue()
+    //              remove()
+    //              updatePriority()
+    //              find()
+    //              checkOrder()
+    //Globals:      none
+    private void checkHeap() {
+        IntKeyedHeap<Airplane> heap =
+                new IntKeyedHeap<>(4, plane -> plane.flightNum);
+        java.util.TreeSet<Ref> model = new java.util.TreeSet<>(Ref.BY_KEY);
+        java.util.List<Ref> live = new java.util.ArrayList<>();
+        java.util.Map<Integer, Ref> byHandle = new java.util.HashMap<>();
+        long inserted = 0;
+        for (step = 1; step <= steps; step++) {
+            int op = random.nextInt(100);
+            if (model.isEmpty() || (op < 40 && model.size() < MAX_SIZE)) {
+                Ref ref = new Ref(newPlane(0), random.nextInt(KEYS),
+                        inserted++);
+                ref.handle = heap.insert(ref.plane, ref.key);
+                expect(!byHandle.containsKey(ref.handle),
+                        "insert gave out a handle in use");
+                add(ref, model, live);
+                byHandle.put(ref.handle, ref);
+            } else if (op < 55) {
+                Ref ref = model.first();
+                expect(heap.dequeue() == ref.plane, "dequeue");
+                drop(ref, model, live);
+                byHandle.remove(ref.handle);
+                expect(!heap.contains(ref.handle), "dequeued handle queued");
+            } else if (op < 70) {
+                Ref ref = pick(live);
+                expect(heap.remove(ref.handle) == ref.plane, "remove");
+                drop(ref, model, live);
+                byHandle.remove(ref.handle);
+                expect(!heap.contains(ref.handle), "removed handle queued");
+            } else if (op < 85) {
+                Ref ref = pick(live);
+                model.remove(ref);
+                ref.key = random.nextInt(KEYS);
+                model.add(ref);
+                heap.updatePriority(ref.handle, ref.key);
+                expect(heap.getKey(ref.handle) == ref.key, "updatePriority");
+            } else {
+                int id = random.nextInt(IDS);
+                Ref ref = firstWithId(model, id);
+                expect(heap.find(id) == ((ref == null) ? -1 : ref.handle),
+                        "find " + id);
+            }
+            expect(heap.size() == model.size(), "size");
+            if (!model.isEmpty()) {
+                Ref front = model.first();
+                expect(heap.getFront() == front.plane, "getFront");
+                expect(heap.getFrontKey() == front.key, "getFrontKey");
+                expect(heap.getFrontHandle() == front.handle,
+                        "getFrontHandle");
+            }
+            if (step % FULL_CHECK_EVERY == 0) {
+                checkOrder(heap, model);
+                for (Ref ref : live) {
+                    expect(heap.get(ref.handle) == ref.plane, "get");
+                    expect(heap.getKey(ref.handle) == ref.key, "getKey");
+                }
+            }
+        }
+    }
+//******************************************************************************
+
+    //Method:       checkOwnedHandles
+    //Description:  This method queues and polls handles the caller owns, as
+    //              CompactSimulator does with PlaneStore rows.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        addHandle()
+    //              pollHandle()
+    //Globals:      none
+    private void checkOwnedHandles() {
+        IntKeyedHeap<Void> heap = new IntKeyedHeap<>(4);
+        java.util.TreeSet<Ref> model = new java.util.TreeSet<>(Ref.BY_KEY);
+        int[] free = new int[MAX_SIZE];
+        for (int i = 0; i < MAX_SIZE; i++) {
+            free[i] = MAX_SIZE - 1 - i;
+        }
+        int freeCount = MAX_SIZE;
+        long inserted = 0;
+        for (step = 1; step <= steps; step++) {
+            if (model.isEmpty()
+                    || (random.nextInt(100) < 55 && freeCount > 0)) {
+                int slot = random.nextInt(freeCount);
+                Ref ref = new Ref(null, random.nextInt(KEYS), inserted++);
+                ref.handle = free[slot];
+                free[slot] = free[--freeCount];
+                heap.addHandle(ref.handle, ref.key);
+                model.add(ref);
+            } else {
+                Ref ref = model.pollFirst();
+                expect(heap.pollHandle() == ref.handle, "pollHandle");
+                free[freeCount++] = ref.handle;
+            }
+            expect(heap.size() == model.size(), "size");
+            expect(heap.getFrontHandle()
+                    == (model.isEmpty() ? -1 : model.first().handle),
+                    "getFrontHandle");
+        }
+    }
+//******************************************************************************
+
+    //Method:       checkHoldingPattern
+    //Description:  This method runs a HoldingPattern through random
+    //              arrivals, crashes, landings, diversions and emergencies.
+    //              One model holds the planes by deadline and one by landing
+    //              key; a plane leaving either way must leave both heaps.
+    //Parameters:   String policy
+    //Returns:      nothing
+    //Calls:        priorityEnqueue()
+    //              dequeue()
+    //              land()
+    //              find()
+    //              remove()
+    //              updatePriority()
+    //              checkOrder()
+    //Globals:      none
+    private void checkHoldingPattern(String policy) {
+        HoldingPattern holding =
+                new HoldingPattern(AirportSimulator.createLandingPolicy(policy));
+        LandingPolicy keys = AirportSimulator.createLandingPolicy(policy);
+        boolean firstInLineLands = !policy.equals("lookahead");
+        java.util.TreeSet<Ref> byDeadline =
+                new java.util.TreeSet<>(Ref.BY_KEY);
+        java.util.TreeSet<Ref> inLine = new java.util.TreeSet<>(Ref.IN_LINE);
+        java.util.List<Ref> live = new java.util.ArrayList<>();
+        int[] nextLandingTime = new int[2];
+        int clock = 0;
+        long inserted = 0;
+        for (step = 1; step <= steps; step++) {
+            clock += random.nextInt(2);
+            int op = random.nextInt(100);
+            if (byDeadline.isEmpty()
+                    || (op < 40 && byDeadline.size() < MAX_SIZE)) {
+                Airplane plane = newPlane(clock);
+                Ref ref = new Ref(plane, plane.deadline, inserted++);
+                ref.landingKey = keys.landingKey(plane);
+                holding.priorityEnqueue(plane, plane.deadline);
+                add(ref, byDeadline, live);
+                inLine.add(ref);
+            } else if (op < 55) {
+                Ref ref = byDeadline.first();
+                expect(holding.dequeue() == ref.plane, "dequeue");
+                drop(ref, byDeadline, live);
+                inLine.remove(ref);
+            } else if (op < 75) {
+                int runway = random.nextInt(nextLandingTime.length);
+                Airplane plane = holding.land(clock, runway, nextLandingTime,
+                        2);
+                Ref ref = inLine.first();
+                if (plane != ref.plane) {
+                    expect(!firstInLineLands, "landed out of line");
+                    ref = byDeadline.first();
+                    expect(plane == ref.plane,
+                            "landed neither first in line nor most urgent");
+                }
+                nextLandingTime[runway] = clock + 2;
+                drop(ref, byDeadline, live);
+                inLine.remove(ref);
+            } else {
+                int id = random.nextInt(IDS);
+                Ref ref = firstWithId(byDeadline, id);
+                int handle = holding.find(id);
+                expect((ref == null) == (handle < 0), "find " + id);
+                if (ref == null) {
+                    continue;
+                }
+                expect(holding.get(handle) == ref.plane, "get after find");
+                if (op < 85) {
+                    expect(holding.remove(handle) == ref.plane, "remove");
+                    drop(ref, byDeadline, live);
+                    inLine.remove(ref);
+                } else {
+                    byDeadline.remove(ref);
+                    inLine.remove(ref);
+                    ref.plane.deadline = clock + random.nextInt(KEYS / 2);
+                    ref.key = ref.plane.deadline;
+                    ref.landingKey = keys.landingKey(ref.plane);
+                    byDeadline.add(ref);
+                    inLine.add(ref);
+                    holding.updatePriority(handle, ref.key);
+                }
+            }
+            expect(holding.size() == byDeadline.size(), "size");
+            if (!byDeadline.isEmpty()) {
+                expect(holding.getFront() == byDeadline.first().plane,
+                        "getFront");
+                expect(holding.getFrontKey() == byDeadline.first().key,
+                        "getFrontKey");
+                expect(holding.getInLine(holding.firstInLine())
+                        == inLine.first().plane, "firstInLine");
+                expect(holding.getInLine(holding.mostUrgent())
+                        == byDeadline.first().plane, "mostUrgent");
+            }
+            if (step % FULL_CHECK_EVERY == 0) {
+                checkOrder(holding, byDeadline);
+            }
+        }
+    }
+//******************************************************************************
+
+    //Method:       checkBulk
+    //Description:  This method fills a queue, removes a random share of it
+    //              with removeIf, adds one more entry with enqueue (which
+    //              appends to the list queue) and drains some of the rest
+    //              with drainTo, checking each against the queue's own order
+    //              before the call, then dequeues what is left in that
+    //              order.
+    //Parameters:   String kind
+    //Returns:      nothing
+    //Calls:        createQueue()
+    //              removeIf()
+    //              enqueue()
+    //              drainTo()
+    //Globals:      none
+    private void checkBulk(String kind) {
+        QueueInterface queue = AirportSimulator.createQueue(kind);
+        int rounds = Math.max(steps / MAX_SIZE, 1);
+        for (step = 1; step <= rounds; step++) {
+            int planes = random.nextInt(MAX_SIZE);
+            for (int i = 0; i < planes; i++) {
+                queue.priorityEnqueue(newPlane(step));
+            }
+            java.util.List<Object> before = new java.util.ArrayList<>();
+            queue.forEach(before::add);
+            int remainder = random.nextInt(3);
+            java.util.function.Predicate<Object> filter =
+                    entry -> ((Airplane) entry).flightNum % 3 == remainder;
+            java.util.List<Object> kept = new java.util.ArrayList<>(before);
+            kept.removeIf(filter);
+            expect(queue.removeIf(filter) == before.size() - kept.size(),
+                    "removeIf count");
+            expect(queue.size() == kept.size(), "size after removeIf");
+            java.util.List<Object> after = new java.util.ArrayList<>();
+            queue.forEach(after::add);
+            expect(after.equals(kept), "order after removeIf");
+
+            Airplane extra = newPlane(step);
+            queue.enqueue(extra);
+            kept.clear();
+            queue.forEach(kept::add);
+            expect(queue.size() == after.size() + 1 && kept.contains(extra),
+                    "enqueue after removeIf");
+            kept.remove(extra);
+            expect(kept.equals(after), "order after enqueue");
+            kept.clear();
+            queue.forEach(kept::add);
+
+            int maxEntries = random.nextInt(kept.size() + 5);
+            java.util.List<Object> drained = new java.util.ArrayList<>();
+            int moved = queue.drainTo(drained, maxEntries);
+            expect(moved == Math.min(maxEntries, kept.size()),
+                    "drainTo count");
+            expect(drained.equals(kept.subList(0, moved)), "drainTo order");
+            for (Object entry : kept.subList(moved, kept.size())) {
+                expect(queue.dequeue() == entry, "dequeue after drainTo");
+            }
+            expect(queue.isEmpty(), "empty at the end");
+        }
+    }
+//******************************************************************************
+
+    //Method:       checkListTies
+    //Description:  This method runs random priorityEnqueue,
+    //              priorityEnqueueLast, dequeue, dequeueLastTied and
+    //              reverseTies calls on the list queue and the same changes
+    //              on a list kept in order by deadline. An enqueue now and
+    //              then of a plane behind all others checks that the list
+    //              still knows its last node.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        priorityEnqueue()
+    //              priorityEnqueueLast()
+    //              dequeue()
+    //              dequeueLastTied()
+    //              reverseTies()
+    //              enqueue()
+    //Globals:      none
+    private void checkListTies() {
+        PriorityQueue queue = new PriorityQueue();
+        java.util.List<Airplane> model = new java.util.ArrayList<>();
+        for (step = 1; step <= steps; step++) {
+            int op = random.nextInt(20);
+            if (op < 9 && model.size() < MAX_SIZE) {
+                Airplane plane = newPlane(step);
+                int at = 0;
+                boolean last = op >= 5;
+                while (at < model.size() && (last
+                        ? model.get(at).deadline <= plane.deadline
+                        : model.get(at).deadline < plane.deadline)) {
+                    at++;
+                }
+                model.add(at, plane);
+                if (last) {
+                    queue.priorityEnqueueLast(plane);
+                } else {
+                    queue.priorityEnqueue(plane);
+                }
+            } else if (op < 13 && !model.isEmpty()) {
+                expect(queue.dequeue() == model.remove(0), "dequeue");
+            } else if (op < 17 && !model.isEmpty()) {
+                int at = 0;
+                while (at + 1 < model.size()
+                        && model.get(at + 1).deadline == model.get(0).deadline) {
+                    at++;
+                }
+                expect(queue.dequeueLastTied() == model.remove(at),
+                        "dequeueLastTied");
+            } else if (op < 19) {
+                for (int start = 0; start < model.size(); ) {
+                    int end = start;
+                    while (end < model.size() && model.get(end).deadline
+                            == model.get(start).deadline) {
+                        end++;
+                    }
+                    java.util.Collections.reverse(model.subList(start, end));
+                    start = end;
+                }
+                queue.reverseTies();
+            } else {
+                Airplane plane = new Airplane(0, random.nextInt(IDS), step,
+                        KEYS);
+                plane.deadline = Integer.MAX_VALUE;
+                model.add(plane);
+                queue.enqueue(plane);
+            }
+            expect(queue.size() == model.size(), "size");
+            expect(queue.getFront() == (model.isEmpty() ? null : model.get(0)),
+                    "front");
+            if (step % FULL_CHECK_EVERY == 0) {
+                java.util.List<Object> order = new java.util.ArrayList<>();
+                queue.forEach(order::add);
+                expect(order.equals(model), "iteration order");
+            }
+        }
+    }
+//******************************************************************************
+
+    private Airplane newPlane(int arrival) {
+        return new Airplane(0, random.nextInt(IDS), arrival,
+                1 + random.nextInt(KEYS / 2));
+    }
+//******************************************************************************
+
+    private Ref pick(java.util.List<Ref> live) {
+        return live.get(random.nextInt(live.size()));
+    }
+//******************************************************************************
+
+    private static void add(Ref ref, java.util.TreeSet<Ref> model,
+            java.util.List<Ref> live) {
+        model.add(ref);
+        ref.index = live.size();
+        live.add(ref);
+    }
+//******************************************************************************
+
+    //Method:       drop
+    //Description:  This method takes a reference entry out of the model and
+    //              out of the list of live entries, moving the last one into
+    //              its place.
+    private static void drop(Ref ref, java.util.TreeSet<Ref> model,
+            java.util.List<Ref> live) {
+        model.remove(ref);
+        Ref last = live.remove(live.size() - 1);
+        if (last != ref) {
+            live.set(ref.index, last);
+            last.index = ref.index;
+        }
+    }
+//******************************************************************************
+
+    private static Ref firstWithId(java.util.TreeSet<Ref> model, int id) {
+        for (Ref ref : model) {
+            if (ref.plane.flightNum == id) {
+                return ref;
+            }
+        }
+        return null;
+    }
+//******************************************************************************
+
+    private static void checkOrder(Iterable<Airplane> queue,
+            java.util.TreeSet<Ref> model) {
+        java.util.Iterator<Ref> expected = model.iterator();
+        for (Airplane plane : queue) {
+            expect(expected.hasNext() && expected.next().plane == plane,
+                    "iteration order");
+        }
+        expect(!expected.hasNext(), "iteration ended early");
+    }
+//******************************************************************************
+
+    private static void expect(boolean condition, String what) {
+        if (!condition) {
+            throw new IllegalStateException(what);
+        }
+    }
+//******************************************************************************
+//******************************************************************************
+
+    //Class:        Ref
+    //Description:  A queued entry in a reference model: its plane, handle,
+    //              keys, insertion number and place in the live list.
+    private static class Ref {
+        static final java.util.Comparator<Ref> BY_KEY =
+                (a, b) -> (a.key != b.key) ? Integer.compare(a.key, b.key)
+                        : Long.compare(a.inserted, b.inserted);
+        static final java.util.Comparator<Ref> IN_LINE =
+                (a, b) -> (a.landingKey != b.landingKey)
+                        ? Integer.compare(a.landingKey, b.landingKey)
+                        : Long.compare(a.inserted, b.inserted);
+
+        private final Airplane plane;
+        private final long inserted;
+        private int key;
+        private int landingKey;
+        private int handle;
+        private int index;
+
+        private Ref(Airplane plane, int key, long inserted) {
+            this.plane = plane;
+            this.key = key;
+            this.inserted = inserted;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
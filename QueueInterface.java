@@ -1,8 +1,72 @@
-public interface QueueInterface {
-	public void priorityEnqueue(Comparable newEntry);
+public interface QueueInterface extends Iterable<Object> {
+	public void priorityEnqueue(Comparable<Object> newEntry);
     public void enqueue(Object newEntry);
 	public Object dequeue();
 	public Object getFront();
 	public boolean isEmpty();
 	public void clear();
+	public int size();
+	public java.util.Iterator<Object> iterator();
+	public Object[] peekTopK(int k);
+	//********************************************************************
+	//Method:       priorityEnqueueAll
+	//Description:  Adds every entry, with the same result as calling
+	//              priorityEnqueue on each in the collection's order.
+	//              Implementations that can build their order in one pass
+	//              override it.
+	default void priorityEnqueueAll(java.util.Collection<? extends Comparable<Object>> newEntries) {
+		for (Comparable<Object> newEntry : newEntries)
+			priorityEnqueue(newEntry);
+	}
+	//********************************************************************
+	//Method:       loadInOrder
+	//Description:  Adds entries listed in dequeue order to an empty queue
+	//              so they come back out in that order, as Checkpoint
+	//              restores a queue. This version passes them to
+	//              priorityEnqueueAll, which keeps that order wherever
+	//              equal entries are first in, first out.
+	default void loadInOrder(java.util.List<? extends Comparable<Object>> entries) {
+		priorityEnqueueAll(entries);
+	}
+	//********************************************************************
+	//Method:       drainTo
+	//Description:  Dequeues up to maxEntries entries into sink, front first,
+	//              and returns how many were moved.
+	default int drainTo(java.util.Collection<Object> sink, int maxEntries) {
+		int drained = 0;
+		while (drained < maxEntries && !isEmpty()) {
+			sink.add(dequeue());
+			drained++;
+		}
+		return drained;
+	}
+	//********************************************************************
+	//Method:       removeIf
+	//Description:  Removes every entry the filter accepts, keeping the
+	//              order of the rest, and returns how many were removed.
+	//              This version dequeues everything and puts the survivors
+	//              back in order; implementations override it with a single
+	//              pass over their storage.
+	default int removeIf(java.util.function.Predicate<Object> filter) {
+		java.util.List<Object> kept = new java.util.ArrayList<>(size());
+		int removed = 0;
+		while (!isEmpty()) {
+			Object entry = dequeue();
+			if (filter.test(entry))
+				removed++;
+			else
+				kept.add(entry);
+		}
+		for (Object entry : kept)
+			enqueue(entry);
+		return removed;
+	}
+	//********************************************************************
+	//Method:       stream
+	//Description:  A read-only stream of the entries in dequeue order.
+	default java.util.stream.Stream<Object> stream() {
+		return java.util.stream.StreamSupport.stream(
+				java.util.Spliterators.spliterator(iterator(), size(),
+						java.util.Spliterator.ORDERED), false);
+	}
 }
\ No newline at end of file
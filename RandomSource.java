@@ -0,0 +1,11 @@
+//******************************************************************************
+//Interface:    RandomSource
+//Description:  The random numbers behind a simulation. Each simulation owns
+//              its source, so nothing is shared between simulations and a
+//              seeded source replays the same run exactly. split returns a new,
+//              statistically independent source and advances this one.
+public interface RandomSource {
+    public int nextInt(int bound);
+    public double nextDouble();
+    public RandomSource split();
+}
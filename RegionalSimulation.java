@@ -0,0 +1,382 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        RegionalSimulation
+//Description:  This class simulates a network of airports. Each airport is a
+//              shard with its own AirportSimulator, arrival stream, runways and
+//              thread. All shards move through simulated time together and
+//              wait at a barrier at the end of every minute.
+//              An arriving plane is diverted when it is expected to run out of
+//              fuel before it can land where it is but could land in time at
+//              another airport. The expected landing time is the first free
+//              runway plus one separation per runway-full of planes ahead of
+//              it: the planes bound for that airport whose deadline is no
+//              later than its own, which are the ones that land first by
+//              lowest fuel first. Those are the planes queued there and the
+//              planes already diverted to it and still in the air. The plane
+//              is sent to the airport where it would land soonest and
+//              arrives there diversionMinutes later.
+//              Shards exchange diverted planes through lock-free queues, one
+//              per pair of airports. At every barrier each shard publishes
+//              how many planes it has queued or inbound by deadline, and how
+//              many it diverted to each airport during the minute; the other
+//              shards read these counts during the next minute. Only planes
+//              another shard diverts in the same minute go uncounted. Because
+//              of that, and because every shard has its own random stream
+//              split from the seed, a run gives the same result whatever the
+//              thread timing. Diverted planes still in flight when the run
+//              ends are reported separately.
+public class RegionalSimulation {
+
+    private final BatchSimulation batch;
+    private final int airports;
+    private final int diversionMinutes;
+    private final Shard[] shards;
+    private final int window;
+    private final int[][][] publishedAhead;
+    private final int[][][][] publishedSent;
+    private final java.util.concurrent.ConcurrentLinkedQueue<Diversion>[][]
+            handoff;
+    private final java.util.concurrent.Phaser barrier;
+    private final java.util.concurrent.atomic.AtomicReference<Throwable>
+            failure = new java.util.concurrent.atomic.AtomicReference<>();
+//******************************************************************************
+
+    //Parameters:   BatchSimulation batch   settings for every airport
+    //              int airports            number of airports (shards)
+    //              int diversionMinutes    flight time to another airport
+    @SuppressWarnings("unchecked")
+    public RegionalSimulation(BatchSimulation batch, int airports,
+            int diversionMinutes) {
+        if (diversionMinutes < 1) {
+            throw new IllegalArgumentException(
+                    "A diversion takes at least one minute");
+        }
+        this.batch = batch;
+        this.airports = airports;
+        this.diversionMinutes = diversionMinutes;
+        window = batch.maxFuel + 1;
+        publishedAhead = new int[2][airports][window];
+        publishedSent = new int[2][airports][airports][window];
+        handoff = (java.util.concurrent.ConcurrentLinkedQueue<Diversion>[][])
+                new java.util.concurrent.ConcurrentLinkedQueue<?>
+                        [airports][airports];
+        for (int from = 0; from < airports; from++) {
+            for (int to = 0; to < airports; to++) {
+                handoff[from][to] =
+                        new java.util.concurrent.ConcurrentLinkedQueue<>();
+            }
+        }
+        barrier = new java.util.concurrent.Phaser(airports);
+        RandomSource master = new SplitMixRandom(batch.seed);
+        shards = new Shard[airports];
+        for (int i = 0; i < airports; i++) {
+            shards[i] = new Shard(i, master.split());
+        }
+    }
+//******************************************************************************
+
+    //Method:       run
+    //Description:  This method runs every shard on its own thread for the
+    //              configured duration and waits for them to finish. If a
+    //              shard fails, the others stop at the next barrier and the
+    //              first failure is thrown here.
+    //Parameters:   none
+    //Returns:      SimulationStats[] (one per airport)
+    //Calls:        Thread.start()
+    //              Thread.join()
+    //Globals:      none
+    public SimulationStats[] run() throws InterruptedException {
+        Thread[] threads = new Thread[airports];
+        for (int i = 0; i < airports; i++) {
+            threads[i] = new Thread(shards[i], "airport-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Throwable failed = failure.get();
+        if (failed instanceof Error) {
+            throw (Error) failed;
+        } else if (failed != null) {
+            throw (RuntimeException) failed;
+        }
+        SimulationStats[] results = new SimulationStats[airports];
+        for (int i = 0; i < airports; i++) {
+            results[i] = shards[i].sim.stats;
+        }
+        return results;
+    }
+//******************************************************************************
+
+    //Method:       runAndReport
+    //Description:  This method runs the network and prints one line per
+    //              airport, the network totals, the diverted planes still in
+    //              flight at the end, and the run time.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        run()
+    //              merge()
+    //              summary()
+    //              inFlight()
+    //Globals:      none
+    public void runAndReport() throws InterruptedException {
+        long start = System.nanoTime();
+        SimulationStats[] results = run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%-8s %12s %12s %10s %10s %10s %6s",
+                "Airport", "Arrivals", "Landings", "Crashes", "Diverted",
+                "MeanWait", "Peak"));
+        SimulationStats total = new SimulationStats();
+        for (int i = 0; i < results.length; i++) {
+            SimulationStats stats = results[i];
+            System.out.println(String.format("%-8d %12d %12d %10d %10d %10.3f %6d",
+                    i, stats.arrivals, stats.landings, stats.crashes,
+                    stats.diversions, stats.meanWait(), stats.peakQueueDepth));
+            total.merge(stats);
+        }
+        System.out.println(total.summary());
+        System.out.println("In flight at end:  " + inFlight()
+                + " diverted plane(s)");
+        System.out.println(String.format("Simulated %d minutes at %d airports "
+                + "in %.3f s", batch.duration, airports, seconds));
+    }
+//******************************************************************************
+
+    //Method:       inFlight
+    //Description:  This method counts the diverted planes that had not
+    //              reached their new airport when the run ended. They are in
+    //              their origin's diversions but in no airport's arrivals.
+    //              Call it only after run() has returned.
+    //Parameters:   none
+    //Returns:      int
+    //Calls:        nothing
+    //Globals:      none
+    public int inFlight() {
+        int planes = 0;
+        for (int to = 0; to < airports; to++) {
+            for (int from = 0; from < airports; from++) {
+                planes += handoff[from][to].size()
+                        + shards[to].inbound[from].size();
+            }
+        }
+        return planes;
+    }
+//******************************************************************************
+
+    private int expectedLanding(int clock, int runwayFree, int ahead) {
+        return Math.max(clock, runwayFree)
+                + (ahead / batch.runways) * batch.separation;
+    }
+//******************************************************************************
+//******************************************************************************
+
+    //Class:        Diversion
+    //Description:  A plane on its way to another airport and the minute it
+    //              gets there.
+    private static class Diversion {
+        private final Airplane plane;
+        private final int arrivalTime;
+
+        private Diversion(Airplane plane, int arrivalTime) {
+            this.plane = plane;
+            this.arrivalTime = arrivalTime;
+        }
+    }
+//******************************************************************************
+//******************************************************************************
+
+    //Class:        Shard
+    //Description:  One airport and the thread that runs it.
+    private class Shard implements Runnable {
+
+        private final int id;
+        private final AirportSimulator sim;
+        private final PoissonArrivals arrivals;
+        private final java.util.ArrayDeque<Diversion>[] inbound;
+        private final int[][] sent;
+
+        @SuppressWarnings("unchecked")
+        private Shard(int id, RandomSource random) {
+            this.id = id;
+            sim = new AirportSimulator(
+                    AirportSimulator.createPlaneQueue(batch.queue,
+                            batch.policy), random.split());
+            sim.landingSeparation = batch.separation;
+            sim.setRunways(batch.runways);
+            sim.events = NullEventSink.INSTANCE;
+            arrivals = new PoissonArrivals(random, batch.rate, batch.minFuel,
+                    batch.maxFuel, 0, batch.duration);
+            inbound = (java.util.ArrayDeque<Diversion>[])
+                    new java.util.ArrayDeque<?>[airports];
+            for (int i = 0; i < airports; i++) {
+                inbound[i] = new java.util.ArrayDeque<>();
+            }
+            sent = new int[airports][window];
+        }
+
+        //Method:       run
+        //Description:  This method simulates every minute, publishes the
+        //              planes by deadline for the next minute, and
+        //              waits at the barrier. However it ends, the shard
+        //              leaves the barrier so the others are not left waiting
+        //              for it; a failure is recorded for RegionalSimulation.run
+        //              and stops the other shards after the minute.
+        @Override
+        public void run() {
+            try {
+                for (int clock = 0; clock < batch.duration; clock++) {
+                    minute(clock);
+                    publish(clock + 1);
+                    barrier.arriveAndAwaitAdvance();
+                    if (failure.get() != null) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                barrier.arriveAndDeregister();
+            }
+        }
+
+        //Method:       publish
+        //Description:  This method publishes, for minute from, ahead[k]: the
+        //              planes queued here or inbound whose deadline is at
+        //              most from + k, walking the queue in deadline order only
+        //              as far as the window. It also publishes, shifted to
+        //              minute from, the planes it diverted to each airport
+        //              during the minute, which no airport has received yet.
+        private void publish(int from) {
+            int[] ahead = publishedAhead[from & 1][id];
+            java.util.Arrays.fill(ahead, 0);
+            for (Airplane plane : sim.planeQueue) {
+                if (plane.deadline - from >= window) {
+                    break;
+                }
+                ahead[Math.max(plane.deadline - from, 0)]++;
+            }
+            for (java.util.ArrayDeque<Diversion> planes : inbound) {
+                for (Diversion diversion : planes) {
+                    int k = diversion.plane.deadline - from;
+                    if (k >= 0 && k < window) {
+                        ahead[k]++;
+                    }
+                }
+            }
+            for (int k = 1; k < window; k++) {
+                ahead[k] += ahead[k - 1];
+            }
+            for (int target = 0; target < airports; target++) {
+                int[] shifted = publishedSent[from & 1][id][target];
+                for (int k = 0; k < window; k++) {
+                    shifted[k] = sent[target][Math.min(k + 1, window - 1)];
+                }
+            }
+        }
+
+        //Method:       planesAhead
+        //Description:  This method counts the planes queued here or inbound
+        //              that would land before a new plane with the given
+        //              deadline.
+        private int planesAhead(int deadline) {
+            int planes = 0;
+            for (Airplane plane : sim.planeQueue) {
+                if (plane.deadline > deadline) {
+                    break;
+                }
+                planes++;
+            }
+            for (java.util.ArrayDeque<Diversion> diversions : inbound) {
+                for (Diversion diversion : diversions) {
+                    if (diversion.plane.deadline <= deadline) {
+                        planes++;
+                    }
+                }
+            }
+            return planes;
+        }
+
+        //Method:       planesAheadAt
+        //Description:  This method counts the planes bound for another
+        //              airport that would land there before a new plane whose
+        //              deadline is k minutes from now: its published queued
+        //              and inbound planes, the planes every shard diverted
+        //              to it in the previous minute, and the ones this shard
+        //              has diverted to it so far this minute.
+        private int planesAheadAt(int other, int clock, int k) {
+            int planes = publishedAhead[clock & 1][other][k] + sent[other][k];
+            for (int from = 0; from < airports; from++) {
+                planes += publishedSent[clock & 1][from][other][k];
+            }
+            return planes;
+        }
+
+        //Method:       minute
+        //Description:  This method takes in the planes diverted here before
+        //              this minute (a faster shard may already be adding this
+        //              minute's, which are left for the next), lands those
+        //              that arrive now (in airport order), then handles this
+        //              airport's own arrivals, diverting any that would not
+        //              make it here, and finally lets the minute pass.
+        private void minute(int clock) {
+            sim.clock = clock;
+            for (int[] counts : sent) {
+                java.util.Arrays.fill(counts, 0);
+            }
+            for (int from = 0; from < airports; from++) {
+                Diversion diversion;
+                while ((diversion = handoff[from][id].peek()) != null
+                        && diversion.arrivalTime < clock + diversionMinutes) {
+                    inbound[from].add(handoff[from][id].poll());
+                }
+                while (!inbound[from].isEmpty()
+                        && inbound[from].peek().arrivalTime <= clock) {
+                    sim.arrive(inbound[from].poll().plane);
+                }
+            }
+            while (arrivals.nextArrivalTime() == clock) {
+                Airplane plane = arrivals.nextArrival();
+                int target = divertTarget(plane, clock);
+                if (target < 0) {
+                    sim.arrive(plane);
+                } else {
+                    handoff[id][target].add(new Diversion(plane,
+                            clock + diversionMinutes));
+                    sim.stats.recordDiversion();
+                    for (int k = Math.max(plane.deadline - clock, 0);
+                            k < window; k++) {
+                        sent[target][k]++;
+                    }
+                }
+            }
+            sim.timePasses();
+        }
+
+        //Method:       divertTarget
+        //Description:  This method returns the airport a new plane should be
+        //              diverted to, or -1 to keep it here.
+        private int divertTarget(Airplane plane, int clock) {
+            int best = -1;
+            int bestTime = expectedLanding(clock, sim.earliestLandingTime(),
+                    planesAhead(plane.deadline));
+            if (bestTime <= plane.deadline) {
+                return -1;
+            }
+            int k = Math.min(Math.max(plane.deadline - clock, 0), window - 1);
+            for (int other = 0; other < airports; other++) {
+                if (other == id) {
+                    continue;
+                }
+                int time = expectedLanding(clock + diversionMinutes, 0,
+                        planesAheadAt(other, clock, k));
+                if (time <= plane.deadline && time < bestTime) {
+                    best = other;
+                    bestTime = time;
+                }
+            }
+            return best;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,144 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        ReplicationRunner
+//Description:  This class runs many independent replications of a batch
+//              simulation on a ForkJoinPool and merges them into 95% confidence
+//              intervals for the crash rate (crashes per arrival) and the mean
+//              wait. Every replication gets its own AirportSimulator and its
+//              own random stream split from the batch seed, so replications
+//              share nothing while they run and the results do not depend on
+//              the number of threads.
+public class ReplicationRunner {
+
+    private static final double Z_95 = 1.959964;
+
+    private final BatchSimulation batch;
+    private final int threads;
+//******************************************************************************
+
+    public ReplicationRunner(BatchSimulation batch, int threads) {
+        this.batch = batch;
+        this.threads = Math.max(threads, 1);
+    }
+//******************************************************************************
+
+    //Method:       run
+    //Description:  This method splits one random stream per replication in
+    //              replication order and runs the replications in parallel.
+    //Parameters:   none
+    //Returns:      SimulationStats[] (one per replication, in order)
+    //Calls:        split()
+    //              invoke()
+    //Globals:      none
+    public SimulationStats[] run() {
+        RandomSource master = new SplitMixRandom(batch.seed);
+        RandomSource[] streams = new RandomSource[batch.replications];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = master.split();
+        }
+        SimulationStats[] results = new SimulationStats[streams.length];
+        java.util.concurrent.ForkJoinPool pool =
+                new java.util.concurrent.ForkJoinPool(threads);
+        try {
+            pool.invoke(new Replications(streams, results, 0, streams.length));
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+//******************************************************************************
+
+    //Method:       runAndReport
+    //Description:  This method runs the replications and prints the merged
+    //              confidence intervals and the run time.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        run()
+    //              interval()
+    //Globals:      none
+    public void runAndReport() {
+        long start = System.nanoTime();
+        SimulationStats[] results = run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double[] crashRates = new double[results.length];
+        double[] meanWaits = new double[results.length];
+        SimulationStats total = new SimulationStats();
+        for (int i = 0; i < results.length; i++) {
+            SimulationStats stats = results[i];
+            crashRates[i] = (stats.arrivals == 0) ? 0.0
+                    : (double) stats.crashes / stats.arrivals;
+            meanWaits[i] = stats.meanWait();
+            total.merge(stats);
+        }
+        System.out.println(results.length + " replications of "
+                + batch.duration + " minutes on " + threads + " thread(s)");
+        System.out.println("Crash rate:        " + interval(crashRates, "%.6f"));
+        System.out.println("Mean wait:         " + interval(meanWaits, "%.4f")
+                + " min(s)");
+        System.out.println(total.summary());
+        System.out.println(String.format("Simulated %d minutes in %.3f s "
+                + "(%.1f million minutes/s)", (long) batch.duration * results.length,
+                seconds, (double) batch.duration * results.length / seconds / 1e6));
+    }
+//******************************************************************************
+
+    //Method:       interval
+    //Description:  This method formats the mean of the samples with the half
+    //              width of a normal-approximation 95% confidence interval.
+    //Parameters:   double[] samples, String format
+    //Returns:      String
+    //Calls:        nothing
+    //Globals:      none
+    static String interval(double[] samples, String format) {
+        int n = samples.length;
+        double mean = 0;
+        for (double sample : samples) {
+            mean += sample;
+        }
+        mean /= n;
+        double squares = 0;
+        for (double sample : samples) {
+            squares += (sample - mean) * (sample - mean);
+        }
+        double halfWidth = (n < 2) ? 0.0
+                : Z_95 * Math.sqrt(squares / (n - 1) / n);
+        return String.format(format + " +/- " + format, mean, halfWidth);
+    }
+//******************************************************************************
+//******************************************************************************
+
+    //Class:        Replications
+    //Description:  A fork/join task for a range of replications. Ranges are
+    //              split in half until a single replication is left.
+    private class Replications
+            extends java.util.concurrent.RecursiveTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+        private final RandomSource[] streams;
+        private final SimulationStats[] results;
+        private final int from;
+        private final int to;
+
+        private Replications(RandomSource[] streams,
+                SimulationStats[] results, int from, int to) {
+            this.streams = streams;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from == 1) {
+                results[from] = batch.run(streams[from]);
+                return null;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Replications(streams, results, from, middle),
+                    new Replications(streams, results, middle, to));
+            return null;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,554 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        ScheduleArrivals
+//Description:  This class is an ArrivalSource that replays a schedule file
+//              (see ScheduleFormat) of any size. A producer thread reads the
+//              file through a FileChannel into a 64K ByteBuffer and parses
+//              rows straight from its bytes into batches of primitive arrays,
+//              so no String is made per row or field. Filled batches go to
+//              the simulation thread through a small blocking queue and come
+//              back empty to be refilled. Only BATCHES batches exist, so when
+//              the simulation falls behind the producer waits for an empty
+//              one: memory stays bounded whatever the file size. Rows must be
+//              in arrival order from minute 0; a row out of order, a negative
+//              arrival or a malformed row ends the schedule with an error
+//              naming the file and line (or record), which is thrown from the
+//              next call on the simulation thread. Messages are formatted
+//              only when a row is rejected. The simulator's runUntil rejects
+//              an arrival earlier than its clock, as when a schedule is
+//              replayed into a restored checkpoint that is already past it.
+//              Usage: java ScheduleArrivals <schedule> <binary schedule>
+//              converts a schedule to the binary format.
+public class ScheduleArrivals implements ArrivalSource, AutoCloseable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int BATCH_ROWS = 4096;
+    private static final int BATCHES = 4;
+    private static final byte[][] AIRLINE_NAMES =
+            new byte[Airplane.AIRLINES.length][];
+
+    static {
+        for (int airline = 0; airline < AIRLINE_NAMES.length; airline++) {
+            AIRLINE_NAMES[airline] = Airplane.AIRLINES[airline]
+                    .getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final java.nio.file.Path path;
+    private final java.nio.channels.FileChannel channel;
+    private final java.util.concurrent.ArrayBlockingQueue<Batch> filled =
+            new java.util.concurrent.ArrayBlockingQueue<>(BATCHES);
+    private final java.util.concurrent.ArrayBlockingQueue<Batch> empty =
+            new java.util.concurrent.ArrayBlockingQueue<>(BATCHES);
+    private final Thread producer;
+    private Batch producing;
+    private long rowNumber;
+    private boolean binary;
+    private Batch current;
+    private int row;
+//******************************************************************************
+
+    //Class:        Batch
+    //Description:  Up to BATCH_ROWS parsed rows. The last batch of a file is
+    //              marked, and carries the error if reading stopped early; its
+    //              rows before the error are still used.
+    private static final class Batch {
+        final int[] airline = new int[BATCH_ROWS];
+        final int[] flightNum = new int[BATCH_ROWS];
+        final int[] arrival = new int[BATCH_ROWS];
+        final int[] fuel = new int[BATCH_ROWS];
+        int rows;
+        boolean last;
+        Exception error;
+    }
+//******************************************************************************
+
+    //Method:       ScheduleArrivals
+    //Description:  This constructor opens the file and starts the producer
+    //              thread.
+    //Parameters:   Path path
+    //Returns:      nothing
+    //Calls:        produce()
+    //Globals:      none
+    public ScheduleArrivals(java.nio.file.Path path)
+            throws java.io.IOException {
+        this.path = path;
+        channel = java.nio.channels.FileChannel.open(path,
+                java.nio.file.StandardOpenOption.READ);
+        for (int i = 0; i < BATCHES; i++) {
+            empty.add(new Batch());
+        }
+        producer = new Thread(this::produce, "schedule-reader");
+        producer.setDaemon(true);
+        producer.start();
+    }
+//******************************************************************************
+
+    @Override
+    public int nextArrivalTime() {
+        return advance() ? current.arrival[row] : Integer.MAX_VALUE;
+    }
+//******************************************************************************
+
+    @Override
+    public Airplane nextArrival() {
+        if (!advance()) {
+            return null;
+        }
+        Airplane plane = new Airplane(current.airline[row],
+                current.flightNum[row], current.arrival[row], current.fuel[row]);
+        row++;
+        return plane;
+    }
+//******************************************************************************
+
+    //Method:       close
+    //Description:  This method stops the producer and closes the file.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        interrupt()
+    //Globals:      none
+    @Override
+    public void close() {
+        producer.interrupt();
+        try {
+            producer.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+//******************************************************************************
+
+    //Method:       advance
+    //Description:  This method makes sure a row is ready, handing the used
+    //              batch back to the producer and waiting for the next one if
+    //              the current batch is used up. A reading error is thrown
+    //              once, after the rows read before it.
+    //Parameters:   none
+    //Returns:      boolean (false once the schedule is finished)
+    //Calls:        take()
+    //Globals:      none
+    private boolean advance() {
+        while (current == null || row == current.rows) {
+            if (current != null) {
+                if (current.last) {
+                    Exception error = current.error;
+                    current.error = null;
+                    if (error instanceof java.io.IOException) {
+                        throw new java.io.UncheckedIOException(
+                                (java.io.IOException) error);
+                    } else if (error != null) {
+                        throw new IllegalStateException(error);
+                    }
+                    return false;
+                }
+                empty.add(current);
+            }
+            try {
+                current = filled.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted reading " + path, e);
+            }
+            row = 0;
+        }
+        return true;
+    }
+//******************************************************************************
+
+    //Method:       produce
+    //Description:  This method is the producer thread: it parses the whole
+    //              file and always finishes by passing on a last batch, with
+    //              the error if there was one.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        readBinary()
+    //              readText()
+    //Globals:      none
+    private void produce() {
+        try {
+            producing = empty.take();
+            java.nio.ByteBuffer buffer =
+                    java.nio.ByteBuffer.allocate(BUFFER_BYTES);
+            buffer.limit(0);
+            fill(buffer);
+            if (buffer.remaining() >= 4
+                    && buffer.getInt(0) == ScheduleFormat.MAGIC) {
+                readBinary(buffer);
+            } else {
+                readText(buffer);
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (java.io.IOException | RuntimeException e) {
+            producing.error = e;
+        }
+        producing.last = true;
+        filled.add(producing);
+    }
+//******************************************************************************
+
+    //Method:       readBinary
+    //Description:  This method checks the header and copies fixed-width
+    //              records into batches.
+    //Parameters:   ByteBuffer buffer   holding the start of the file
+    //Returns:      nothing
+    //Calls:        fill()
+    //              add()
+    //Globals:      none
+    private void readBinary(java.nio.ByteBuffer buffer)
+            throws java.io.IOException, InterruptedException {
+        if (buffer.remaining() < ScheduleFormat.HEADER_BYTES) {
+            throw new java.io.IOException(path + ": truncated header");
+        }
+        buffer.getInt();
+        int version = buffer.getInt();
+        int recordBytes = buffer.getInt();
+        buffer.getInt();
+        if (version != ScheduleFormat.VERSION
+                || recordBytes != ScheduleFormat.RECORD_BYTES) {
+            throw new java.io.IOException(path
+                    + ": unsupported schedule version " + version);
+        }
+        binary = true;
+        int lastArrival = 0;
+        while (true) {
+            while (buffer.remaining() >= ScheduleFormat.RECORD_BYTES) {
+                rowNumber++;
+                int airline = buffer.get();
+                buffer.get();
+                buffer.getShort();
+                int flightNum = buffer.getInt();
+                int arrival = buffer.getInt();
+                int fuel = buffer.getInt();
+                check(airline, arrival, fuel, lastArrival);
+                lastArrival = arrival;
+                add(airline, flightNum, arrival, fuel);
+            }
+            if (!fill(buffer)) {
+                if (buffer.hasRemaining()) {
+                    rowNumber++;
+                    throw error("truncated record");
+                }
+                return;
+            }
+        }
+    }
+//******************************************************************************
+
+    //Method:       readText
+    //Description:  This method splits the buffer into lines and parses each
+    //              line's four comma-separated fields from its bytes.
+    //Parameters:   ByteBuffer buffer   holding the start of the file
+    //Returns:      nothing
+    //Calls:        fill()
+    //              isHeader()
+    //              parseAirline()
+    //              parseInt()
+    //              add()
+    //Globals:      none
+    private void readText(java.nio.ByteBuffer buffer)
+            throws java.io.IOException, InterruptedException {
+        byte[] bytes = buffer.array();
+        boolean seenData = false;
+        boolean more = true;
+        int lastArrival = 0;
+        int[] field = new int[1];
+        while (true) {
+            int start = buffer.position();
+            int end = start;
+            while (end < buffer.limit() && bytes[end] != '\n') {
+                end++;
+            }
+            if (end == buffer.limit() && more) {
+                if (start == 0 && end == bytes.length) {
+                    rowNumber++;
+                    throw error("line too long");
+                }
+                more = fill(buffer);
+                continue;
+            }
+            if (start == end && !more) {
+                return;
+            }
+            rowNumber++;
+            buffer.position(Math.min(end + 1, buffer.limit()));
+            int stop = end;
+            while (stop > start && (bytes[stop - 1] == '\r'
+                    || bytes[stop - 1] == ' ' || bytes[stop - 1] == '\t')) {
+                stop--;
+            }
+            int at = skipSpaces(bytes, start, stop);
+            if (at == stop || bytes[at] == '#') {
+                continue;
+            }
+            if (!seenData) {
+                seenData = true;
+                if (isHeader(bytes, at, stop)) {
+                    continue;
+                }
+            }
+            field[0] = at;
+            int airline = parseAirline(bytes, field, stop);
+            int flightNum = parseInt(bytes, field, stop);
+            int arrival = parseInt(bytes, field, stop);
+            int fuel = parseInt(bytes, field, stop);
+            if (field[0] < stop) {
+                throw error("more than four fields");
+            }
+            check(airline, arrival, fuel, lastArrival);
+            lastArrival = arrival;
+            add(airline, flightNum, arrival, fuel);
+        }
+    }
+//******************************************************************************
+
+    //Method:       isHeader
+    //Description:  This method tells a column header from a row: its third
+    //              (arrival) field does not start with a digit.
+    //Parameters:   byte[] bytes, int at, int stop  the line
+    //Returns:      boolean
+    //Calls:        nothing
+    //Globals:      none
+    private static boolean isHeader(byte[] bytes, int at, int stop) {
+        for (int commas = 0; commas < 2; at++) {
+            if (at == stop) {
+                return false;
+            }
+            if (bytes[at] == ',') {
+                commas++;
+            }
+        }
+        return !isDigit(bytes, skipSpaces(bytes, at, stop), stop);
+    }
+//******************************************************************************
+
+    //Method:       parseAirline
+    //Description:  This method reads the airline field, either an index or a
+    //              name matched byte by byte (ignoring case) against the
+    //              airline names, and moves field[0] past its comma.
+    //Parameters:   byte[] bytes, int[] field (position in and out), int stop
+    //Returns:      int (the airline index)
+    //Calls:        parseInt()
+    //              error()
+    //Globals:      none
+    private int parseAirline(byte[] bytes, int[] field, int stop)
+            throws java.io.IOException {
+        if (isDigit(bytes, field[0], stop)) {
+            return parseInt(bytes, field, stop);
+        }
+        int start = field[0];
+        int end = start;
+        while (end < stop && bytes[end] != ',') {
+            end++;
+        }
+        int last = end;
+        while (last > start && bytes[last - 1] == ' ') {
+            last--;
+        }
+        for (int airline = 0; airline < AIRLINE_NAMES.length; airline++) {
+            byte[] name = AIRLINE_NAMES[airline];
+            if (name.length != last - start) {
+                continue;
+            }
+            int i = 0;
+            while (i < name.length && (bytes[start + i] | 0x20)
+                    == (name[i] | 0x20)) {
+                i++;
+            }
+            if (i == name.length) {
+                field[0] = skipSpaces(bytes, Math.min(end + 1, stop), stop);
+                return airline;
+            }
+        }
+        if (end == stop) {
+            throw error("expected four fields");
+        }
+        field[0] = skipSpaces(bytes, end + 1, stop);
+        return -1;
+    }
+//******************************************************************************
+
+    //Method:       parseInt
+    //Description:  This method reads an unsigned decimal field and moves
+    //              field[0] past it and its comma.
+    //Parameters:   byte[] bytes, int[] field (position in and out), int stop
+    //Returns:      int
+    //Calls:        error()
+    //Globals:      none
+    private int parseInt(byte[] bytes, int[] field, int stop)
+            throws java.io.IOException {
+        int at = field[0];
+        if (!isDigit(bytes, at, stop)) {
+            throw error("expected a number");
+        }
+        int value = 0;
+        while (at < stop && bytes[at] >= '0' && bytes[at] <= '9') {
+            if (value > (Integer.MAX_VALUE - 9) / 10) {
+                throw error("number too large");
+            }
+            value = value * 10 + (bytes[at++] - '0');
+        }
+        at = skipSpaces(bytes, at, stop);
+        if (at < stop) {
+            if (bytes[at] != ',') {
+                throw error("unexpected character");
+            }
+            at = skipSpaces(bytes, at + 1, stop);
+        }
+        field[0] = at;
+        return value;
+    }
+//******************************************************************************
+
+    private static boolean isDigit(byte[] bytes, int at, int stop) {
+        return at < stop && bytes[at] >= '0' && bytes[at] <= '9';
+    }
+//******************************************************************************
+
+    private static int skipSpaces(byte[] bytes, int at, int stop) {
+        while (at < stop && (bytes[at] == ' ' || bytes[at] == '\t')) {
+            at++;
+        }
+        return at;
+    }
+//******************************************************************************
+
+    //Method:       check
+    //Description:  This method rejects a row with an unknown airline, negative
+    //              fuel, a negative arrival (the simulation starts at minute
+    //              0), or an arrival earlier than the row before it.
+    //Parameters:   int airline, int arrival, int fuel, int lastArrival
+    //Returns:      nothing
+    //Calls:        error()
+    //Globals:      none
+    private void check(int airline, int arrival, int fuel, int lastArrival)
+            throws java.io.IOException {
+        if (airline < 0 || airline >= AIRLINE_NAMES.length) {
+            throw error("unknown airline");
+        }
+        if (fuel < 0) {
+            throw error("negative fuel");
+        }
+        if (arrival < 0) {
+            throw error("negative arrival");
+        }
+        if (arrival < lastArrival) {
+            throw error("arrivals are not in time order");
+        }
+    }
+//******************************************************************************
+
+    //Method:       error
+    //Description:  This method builds the exception for the row being read,
+    //              naming the file and its line or record number. The message
+    //              is only formatted here, when a row is rejected.
+    //Parameters:   String message
+    //Returns:      IOException
+    //Calls:        nothing
+    //Globals:      none
+    private java.io.IOException error(String message) {
+        return new java.io.IOException(path + (binary ? " record " : ":")
+                + rowNumber + ": " + message);
+    }
+//******************************************************************************
+
+    //Method:       add
+    //Description:  This method appends a row to the batch being filled,
+    //              passing the batch on and waiting for an empty one when it
+    //              is full. Waiting here is the backpressure.
+    //Parameters:   int airline, int flightNum, int arrival, int fuel
+    //Returns:      nothing
+    //Calls:        put()
+    //              take()
+    //Globals:      none
+    private void add(int airline, int flightNum, int arrival, int fuel)
+            throws InterruptedException {
+        Batch batch = producing;
+        int i = batch.rows++;
+        batch.airline[i] = airline;
+        batch.flightNum[i] = flightNum;
+        batch.arrival[i] = arrival;
+        batch.fuel[i] = fuel;
+        if (batch.rows == BATCH_ROWS) {
+            filled.put(batch);
+            producing = empty.take();
+            producing.rows = 0;
+        }
+    }
+//******************************************************************************
+
+    //Method:       fill
+    //Description:  This method moves any unread bytes to the front of the
+    //              buffer and reads more from the file after them.
+    //Parameters:   ByteBuffer buffer (left ready to read)
+    //Returns:      boolean (false if the file had nothing more)
+    //Calls:        read()
+    //Globals:      none
+    private boolean fill(java.nio.ByteBuffer buffer)
+            throws java.io.IOException {
+        buffer.compact();
+        int total = 0;
+        int read = 0;
+        while (buffer.hasRemaining() && (read = channel.read(buffer)) > 0) {
+            total += read;
+        }
+        buffer.flip();
+        return total > 0 || read >= 0;
+    }
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method converts a schedule (text or binary) to the
+    //              binary format.
+    //Parameters:   String[] args   input path, output path
+    //Returns:      nothing
+    //Calls:        nextArrivalTime()
+    //              nextArrival()
+    //Globals:      none
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java ScheduleArrivals <schedule> "
+                    + "<binary schedule>");
+            return;
+        }
+        long planes = 0;
+        try (ScheduleArrivals schedule =
+                        new ScheduleArrivals(java.nio.file.Paths.get(args[0]));
+                java.nio.channels.FileChannel out =
+                        java.nio.channels.FileChannel.open(
+                        java.nio.file.Paths.get(args[1]),
+                        java.nio.file.StandardOpenOption.CREATE,
+                        java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                        java.nio.file.StandardOpenOption.WRITE)) {
+            java.nio.ByteBuffer buffer =
+                    java.nio.ByteBuffer.allocate(BUFFER_BYTES);
+            buffer.putInt(ScheduleFormat.MAGIC).putInt(ScheduleFormat.VERSION)
+                    .putInt(ScheduleFormat.RECORD_BYTES).putInt(0);
+            while (schedule.nextArrivalTime() != Integer.MAX_VALUE) {
+                Airplane plane = schedule.nextArrival();
+                if (buffer.remaining() < ScheduleFormat.RECORD_BYTES) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                buffer.put(plane.airlineCode).put((byte) 0).putShort((short) 0)
+                        .putInt(plane.flightNum).putInt(plane.arrival)
+                        .putInt(plane.deadline - plane.arrival);
+                planes++;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        System.out.println("Wrote " + planes + " planes to " + args[1]);
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,33 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        ScheduleFormat
+//Description:  This class describes the arrival schedule files read by
+//              ScheduleArrivals. A schedule lists planes in arrival order, as
+//              text or binary.
+//              Text (CSV), one plane per line:
+//                  airline,flight number,arrival minute,fuel minutes
+//              where airline is a name from Airplane.AIRLINES (any case) or
+//              its index. Blank lines and lines starting with # are skipped,
+//              and so is a first line whose arrival field is not a number (a
+//              column header).
+//              Binary, all big-endian: a 16-byte header followed by
+//              fixed-width 16-byte records:
+//                  header  int magic ("ASCH"), int version, int record size,
+//                          int reserved
+//                  record  byte airline, byte reserved, short reserved,
+//                          int flight number, int arrival minute,
+//                          int fuel minutes
+//              A file is read as binary if it starts with the magic number.
+final class ScheduleFormat {
+
+    static final int MAGIC = 0x41534348;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+//******************************************************************************
+
+    private ScheduleFormat() {
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,366 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        SimulationMetrics
+//Description:  This class is an EventSink that keeps live metrics for a
+//              running simulation:
+//              - counters for arrivals, landings and crashes
+//              - the current holding-pattern depth and its high-water mark
+//              - a WaitHistogram of the wait of every landed plane
+//              - simulated minutes per second of wall time
+//              Recording only updates fields, so it allocates nothing and can
+//              stay on in batch runs. The fields are written by the
+//              simulation thread alone, which bumps version to odd before
+//              an event and back to even after it. JMX and the snapshot
+//              reporter copy the fields into reading and keep the copy only
+//              if version was the same even number before and after, so they
+//              never see half an event and the simulation never waits.
+public class SimulationMetrics implements EventSink, SimulationMetricsMBean {
+
+    private final WaitHistogram waits = new WaitHistogram();
+    private long arrivals;
+    private long landings;
+    private long crashes;
+    private int queueDepth;
+    private int peakQueueDepth;
+    private int clock;
+    private final java.util.concurrent.atomic.AtomicLong version =
+            new java.util.concurrent.atomic.AtomicLong();
+    private final Reading reading = new Reading();
+    private int lastSnapshotClock;
+    private long lastSnapshotNanos = System.nanoTime();
+    private double minutesPerSecond;
+    private javax.management.ObjectName name;
+    private java.util.concurrent.ScheduledExecutorService reporter;
+//******************************************************************************
+
+    //Method:       start
+    //Description:  This method creates metrics, registers them with the
+    //              platform MBean server under AirportSimulator:type=
+    //              SimulationMetrics and, if periodSeconds is positive, prints
+    //              a snapshot line to standard error that often. A
+    //              simulation restored from a Checkpoint starts at its clock
+    //              with planes already holding, and the metrics start there
+    //              too so the depth does not go below zero as those land.
+    //Parameters:   int periodSeconds
+    //              int clock               the simulation clock now
+    //              int queueDepth          planes holding now
+    //Returns:      SimulationMetrics
+    //Calls:        registerMBean()
+    //              snapshot()
+    //Globals:      none
+    public static SimulationMetrics start(int periodSeconds, int clock,
+            int queueDepth) {
+        SimulationMetrics metrics = new SimulationMetrics();
+        metrics.clock = clock;
+        metrics.lastSnapshotClock = clock;
+        metrics.queueDepth = queueDepth;
+        metrics.peakQueueDepth = queueDepth;
+        try {
+            metrics.name = new javax.management.ObjectName(
+                    "AirportSimulator:type=SimulationMetrics,id="
+                    + Integer.toHexString(System.identityHashCode(metrics)));
+            java.lang.management.ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(metrics, metrics.name);
+        } catch (javax.management.JMException e) {
+            throw new IllegalStateException("Cannot register metrics MBean", e);
+        }
+        if (periodSeconds > 0) {
+            metrics.reporter = java.util.concurrent.Executors
+                    .newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable,
+                                "metrics-reporter");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            metrics.reporter.scheduleAtFixedRate(
+                    () -> System.err.println(metrics.getSnapshot()),
+                    periodSeconds, periodSeconds,
+                    java.util.concurrent.TimeUnit.SECONDS);
+        }
+        return metrics;
+    }
+//******************************************************************************
+
+    //Method:       beginUpdate
+    //Description:  This method makes version odd before the simulation
+    //              thread changes any field. The fence keeps those changes
+    //              from being seen before the odd version.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        storeStoreFence()
+    //Globals:      none
+    private void beginUpdate() {
+        version.setPlain(version.getPlain() + 1);
+        java.lang.invoke.VarHandle.storeStoreFence();
+    }
+//******************************************************************************
+
+    //Method:       endUpdate
+    //Description:  This method makes version even again, released after the
+    //              changes to the fields.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        setRelease()
+    //Globals:      none
+    private void endUpdate() {
+        version.setRelease(version.getPlain() + 1);
+    }
+//******************************************************************************
+
+    @Override
+    public void onArrival(int clock, int airline, int flightNum, int fuelLeft) {
+        beginUpdate();
+        this.clock = clock;
+        arrivals++;
+        if (++queueDepth > peakQueueDepth) {
+            peakQueueDepth = queueDepth;
+        }
+        endUpdate();
+    }
+//******************************************************************************
+
+    @Override
+    public void onLanding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        beginUpdate();
+        this.clock = clock;
+        landings++;
+        queueDepth--;
+        waits.record(wait);
+        endUpdate();
+    }
+//******************************************************************************
+
+    @Override
+    public void onCrash(int clock, int airline, int flightNum, int wait) {
+        beginUpdate();
+        this.clock = clock;
+        crashes++;
+        queueDepth--;
+        endUpdate();
+    }
+//******************************************************************************
+
+    @Override
+    public void onHolding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        beginUpdate();
+        this.clock = clock;
+        endUpdate();
+    }
+//******************************************************************************
+
+    @Override
+    public void onDiversion(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        beginUpdate();
+        this.clock = clock;
+        queueDepth--;
+        endUpdate();
+    }
+//******************************************************************************
+
+    @Override
+    public void onEmergency(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        beginUpdate();
+        this.clock = clock;
+        endUpdate();
+    }
+//******************************************************************************
+
+    //Method:       read
+    //Description:  This method copies the fields into reading, trying again
+    //              while the simulation thread is part way through an event
+    //              or finishes one during the copy. The caller holds the
+    //              lock on this object, which guards reading.
+    //Parameters:   none
+    //Returns:      Reading
+    //Calls:        merge()
+    //              loadLoadFence()
+    //Globals:      none
+    private Reading read() {
+        while (true) {
+            long before = version.getAcquire();
+            if ((before & 1) == 0) {
+                reading.arrivals = arrivals;
+                reading.landings = landings;
+                reading.crashes = crashes;
+                reading.queueDepth = queueDepth;
+                reading.peakQueueDepth = peakQueueDepth;
+                reading.clock = clock;
+                reading.waits.reset();
+                reading.waits.merge(waits);
+                java.lang.invoke.VarHandle.loadLoadFence();
+                if (version.getAcquire() == before) {
+                    return reading;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+//******************************************************************************
+
+    //Method:       close
+    //Description:  This method stops the reporter, prints a last snapshot if
+    //              one was being printed, and unregisters the MBean.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        shutdownNow()
+    //              unregisterMBean()
+    //Globals:      none
+    @Override
+    public void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            System.err.println(getSnapshot());
+            reporter = null;
+        }
+        if (name != null) {
+            try {
+                java.lang.management.ManagementFactory.getPlatformMBeanServer()
+                        .unregisterMBean(name);
+            } catch (javax.management.JMException e) {
+                // already gone
+            }
+            name = null;
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized long getArrivals() {
+        return read().arrivals;
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized long getLandings() {
+        return read().landings;
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized long getCrashes() {
+        return read().crashes;
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized double getCrashRate() {
+        return read().crashRate();
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized int getQueueDepth() {
+        return read().queueDepth;
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized int getPeakQueueDepth() {
+        return read().peakQueueDepth;
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized int getClock() {
+        return read().clock;
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized double getMeanWait() {
+        return read().waits.mean();
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized int getWaitP50() {
+        return read().waits.percentile(50);
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized int getWaitP90() {
+        return read().waits.percentile(90);
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized int getWaitP99() {
+        return read().waits.percentile(99);
+    }
+//******************************************************************************
+
+    @Override
+    public synchronized int getMaxWait() {
+        return read().waits.max();
+    }
+//******************************************************************************
+
+    //Method:       getMinutesPerSecond
+    //Description:  This method returns the simulated minutes per second of
+    //              wall time measured at the latest snapshot.
+    //Parameters:   none
+    //Returns:      double
+    //Calls:        nothing
+    //Globals:      none
+    @Override
+    public synchronized double getMinutesPerSecond() {
+        return minutesPerSecond;
+    }
+//******************************************************************************
+
+    //Method:       getSnapshot
+    //Description:  This method updates the minutes-per-second rate from the
+    //              clock progress since the previous snapshot and returns all
+    //              metrics as one line.
+    //Parameters:   none
+    //Returns:      String
+    //Calls:        read()
+    //              percentile()
+    //Globals:      none
+    @Override
+    public synchronized String getSnapshot() {
+        long now = System.nanoTime();
+        Reading copy = read();
+        if (now > lastSnapshotNanos) {
+            minutesPerSecond = (copy.clock - lastSnapshotClock)
+                    / ((now - lastSnapshotNanos) / 1e9);
+        }
+        lastSnapshotNanos = now;
+        lastSnapshotClock = copy.clock;
+        return String.format("[metrics] clock=%d arrivals=%d landings=%d "
+                + "crashes=%d crashRate=%.4f depth=%d peakDepth=%d "
+                + "wait(mean=%.2f p50=%d p90=%d p99=%d max=%d) "
+                + "minutes/s=%.0f", copy.clock, copy.arrivals, copy.landings,
+                copy.crashes, copy.crashRate(), copy.queueDepth,
+                copy.peakQueueDepth, copy.waits.mean(),
+                copy.waits.percentile(50), copy.waits.percentile(90),
+                copy.waits.percentile(99), copy.waits.max(),
+                minutesPerSecond);
+    }
+//******************************************************************************
+
+    //Class:        Reading
+    //Description:  This class holds one consistent copy of the metrics for
+    //              the readers.
+    private static class Reading {
+        final WaitHistogram waits = new WaitHistogram();
+        long arrivals;
+        long landings;
+        long crashes;
+        int queueDepth;
+        int peakQueueDepth;
+        int clock;
+
+        double crashRate() {
+            long done = landings + crashes;
+            return (done == 0) ? 0.0 : (double) crashes / done;
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
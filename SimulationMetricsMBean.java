@@ -0,0 +1,21 @@
+//******************************************************************************
+//Interface:    SimulationMetricsMBean
+//Description:  The JMX view of SimulationMetrics. Waits are in simulated
+//              minutes; MinutesPerSecond is simulated minutes per second of
+//              wall time since the previous snapshot.
+public interface SimulationMetricsMBean {
+    public long getArrivals();
+    public long getLandings();
+    public long getCrashes();
+    public double getCrashRate();
+    public int getQueueDepth();
+    public int getPeakQueueDepth();
+    public int getClock();
+    public double getMeanWait();
+    public int getWaitP50();
+    public int getWaitP90();
+    public int getWaitP99();
+    public int getMaxWait();
+    public double getMinutesPerSecond();
+    public String getSnapshot();
+}
@@ -0,0 +1,110 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        SimulationStats
+//Description:  This class keeps running totals for a simulation run: arrivals,
+//              landings, crashes, planes diverted to other airports, the wait
+//              of landed planes, and the depth of the holding pattern.
+//              Recording is a few field updates, so it is left on even when
+//              nothing is printed.
+public class SimulationStats {
+
+    long arrivals;
+    long landings;
+    long crashes;
+    long diversions;
+    long totalWait;
+    int maxWait;
+    int queueDepth;
+    int peakQueueDepth;
+//******************************************************************************
+
+    public void recordArrival() {
+        arrivals++;
+        if (++queueDepth > peakQueueDepth) {
+            peakQueueDepth = queueDepth;
+        }
+    }
+//******************************************************************************
+
+    public void recordLanding(int wait) {
+        landings++;
+        queueDepth--;
+        totalWait += wait;
+        if (wait > maxWait) {
+            maxWait = wait;
+        }
+    }
+//******************************************************************************
+
+    public void recordCrash() {
+        crashes++;
+        queueDepth--;
+    }
+//******************************************************************************
+
+    public void recordDiversion() {
+        diversions++;
+    }
+//******************************************************************************
+
+    //Method:       recordHoldingDiversion
+    //Description:  This method records a plane diverted after it had joined
+    //              the holding pattern, which also leaves the queue.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        nothing
+    //Globals:      none
+    public void recordHoldingDiversion() {
+        diversions++;
+        queueDepth--;
+    }
+//******************************************************************************
+
+    //Method:       merge
+    //Description:  This method adds another run's totals into these. Queue
+    //              depths are not additive, so the larger peak is kept.
+    //Parameters:   SimulationStats other
+    //Returns:      nothing
+    //Calls:        nothing
+    //Globals:      none
+    public void merge(SimulationStats other) {
+        arrivals += other.arrivals;
+        landings += other.landings;
+        crashes += other.crashes;
+        diversions += other.diversions;
+        totalWait += other.totalWait;
+        maxWait = Math.max(maxWait, other.maxWait);
+        peakQueueDepth = Math.max(peakQueueDepth, other.peakQueueDepth);
+    }
+//******************************************************************************
+
+    //Method:       meanWait
+    //Description:  This method returns the mean wait of the planes that landed.
+    //Parameters:   none
+    //Returns:      double (0 if nothing has landed)
+    //Calls:        nothing
+    //Globals:      none
+    public double meanWait() {
+        return (landings == 0) ? 0.0 : (double) totalWait / landings;
+    }
+//******************************************************************************
+
+    //Method:       summary
+    //Description:  This method formats the totals as a short report.
+    //Parameters:   none
+    //Returns:      String
+    //Calls:        meanWait()
+    //Globals:      none
+    public String summary() {
+        return "Arrivals:          " + arrivals + "\n"
+                + "Landings:          " + landings + "\n"
+                + "Crashes:           " + crashes + "\n"
+                + ((diversions == 0) ? ""
+                        : "Diversions:        " + diversions + "\n")
+                + "Mean wait:         " + String.format("%.3f", meanWait()) + " min(s)\n"
+                + "Max wait:          " + maxWait + " min(s)\n"
+                + "Peak queue depth:  " + peakQueueDepth;
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,104 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        SplitMixRandom
+//Description:  This class is a RandomSource using the SplitMix64 generator
+//              (the algorithm behind java.util.SplittableRandom). Its whole
+//              state is two longs, which getSeed and getGamma expose so a run
+//              can be saved and resumed. It is not thread-safe; each
+//              simulation uses its own instance.
+public class SplitMixRandom implements RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private final long gamma;
+//******************************************************************************
+
+    public SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+//******************************************************************************
+
+    public SplitMixRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma | 1L;
+    }
+//******************************************************************************
+
+    public long getSeed() {
+        return seed;
+    }
+//******************************************************************************
+
+    public long getGamma() {
+        return gamma;
+    }
+//******************************************************************************
+
+    public long nextLong() {
+        return mix64(seed += gamma);
+    }
+//******************************************************************************
+
+    //Method:       nextInt
+    //Description:  This method returns a uniform int in [0, bound) using
+    //              rejection, so no value is favoured for bounds that are not a
+    //              power of two.
+    //Parameters:   int bound (must be positive)
+    //Returns:      int
+    //Calls:        nextLong()
+    //Globals:      none
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = (int) (nextLong() >>> 32);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0;
+                u = (int) (nextLong() >>> 33)) {
+        }
+        return r;
+    }
+//******************************************************************************
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+//******************************************************************************
+
+    @Override
+    public RandomSource split() {
+        return new SplitMixRandom(nextLong(), mixGamma(seed += gamma));
+    }
+//******************************************************************************
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+//******************************************************************************
+
+    //Method:       mixGamma
+    //Description:  This method turns a seed into an odd gamma with enough bit
+    //              transitions to give a good sequence, as SplittableRandom
+    //              does.
+    //Parameters:   long z
+    //Returns:      long
+    //Calls:        nothing
+    //Globals:      none
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,77 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        TeeEventSink
+//Description:  This class is an EventSink that passes every event on to each
+//              of several sinks in turn, for example a console log and a
+//              trace file.
+public class TeeEventSink implements EventSink {
+
+    private final EventSink[] sinks;
+//******************************************************************************
+
+    public TeeEventSink(EventSink... sinks) {
+        this.sinks = sinks.clone();
+    }
+//******************************************************************************
+
+    @Override
+    public void onArrival(int clock, int airline, int flightNum, int fuelLeft) {
+        for (EventSink sink : sinks) {
+            sink.onArrival(clock, airline, flightNum, fuelLeft);
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public void onLanding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        for (EventSink sink : sinks) {
+            sink.onLanding(clock, airline, flightNum, fuelLeft, wait);
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public void onCrash(int clock, int airline, int flightNum, int wait) {
+        for (EventSink sink : sinks) {
+            sink.onCrash(clock, airline, flightNum, wait);
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public void onHolding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        for (EventSink sink : sinks) {
+            sink.onHolding(clock, airline, flightNum, fuelLeft, wait);
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public void onDiversion(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        for (EventSink sink : sinks) {
+            sink.onDiversion(clock, airline, flightNum, fuelLeft, wait);
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public void onEmergency(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        for (EventSink sink : sinks) {
+            sink.onEmergency(clock, airline, flightNum, fuelLeft, wait);
+        }
+    }
+//******************************************************************************
+
+    @Override
+    public void close() {
+        for (EventSink sink : sinks) {
+            sink.close();
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,277 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        TraceAnalyzer
+//Description:  This class reads a binary trace written by TraceWriter and
+//              reports wait-time percentiles of landed planes, landings and
+//              crashes per airline, and the peak holding-pattern depth. It can
+//              also write the queue depth over time as CSV. The trace is read
+//              through read-only mapped windows one at a time and every total
+//              is a counter or a histogram of waits, so memory use does not
+//              grow with the size of the trace.
+//              Usage: java TraceAnalyzer <trace> [--series=<csv>]
+//                                                [--interval=<minutes>]
+public class TraceAnalyzer {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private long[] waitCounts = new long[64];
+    private long arrivals;
+    private long landings;
+    private long crashes;
+    private long holdings;
+    private long diversions;
+    private long emergencies;
+    private long totalWait;
+    private final long[] airlineLandings = new long[Airplane.AIRLINES.length];
+    private final long[] airlineCrashes = new long[Airplane.AIRLINES.length];
+    private int depth;
+    private int peakDepth;
+    private int peakClock;
+    private final java.io.Writer series;
+    private final int interval;
+    private long seriesMinute;
+    private int intervalMaxDepth;
+//******************************************************************************
+
+    public TraceAnalyzer(java.io.Writer series, int interval) {
+        this.series = series;
+        this.interval = Math.max(interval, 1);
+    }
+//******************************************************************************
+
+    //Method:       main
+    //Description:  This method analyzes the trace named on the command line
+    //              and prints the report.
+    //Parameters:   String[] args
+    //Returns:      nothing
+    //Calls:        analyze()
+    //              report()
+    //Globals:      none
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java TraceAnalyzer <trace> "
+                    + "[--series=<csv>] [--interval=<minutes>]");
+            return;
+        }
+        String seriesPath = null;
+        int interval = 60;
+        for (String arg : args) {
+            if (arg.startsWith("--series=")) {
+                seriesPath = arg.substring("--series=".length());
+            } else if (arg.startsWith("--interval=")) {
+                interval = Integer.parseInt(arg.substring("--interval=".length()));
+            }
+        }
+        java.io.Writer series = (seriesPath == null) ? null
+                : java.nio.file.Files.newBufferedWriter(
+                        java.nio.file.Paths.get(seriesPath));
+        TraceAnalyzer analyzer = new TraceAnalyzer(series, interval);
+        analyzer.analyze(java.nio.file.Paths.get(args[0]));
+        if (series != null) {
+            series.close();
+        }
+        System.out.print(analyzer.report());
+    }
+//******************************************************************************
+
+    //Method:       analyze
+    //Description:  This method checks the header and feeds every record to
+    //              record(), mapping one window of the file at a time.
+    //Parameters:   Path path
+    //Returns:      nothing
+    //Calls:        record()
+    //              endSeries()
+    //Globals:      none
+    public void analyze(java.nio.file.Path path) throws java.io.IOException {
+        try (java.nio.channels.FileChannel channel =
+                java.nio.channels.FileChannel.open(path,
+                        java.nio.file.StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TraceFormat.HEADER_BYTES) {
+                throw new java.io.IOException(path + " is not an event trace");
+            }
+            java.nio.MappedByteBuffer header = channel.map(
+                    java.nio.channels.FileChannel.MapMode.READ_ONLY, 0,
+                    TraceFormat.HEADER_BYTES);
+            if (header.getInt() != TraceFormat.MAGIC) {
+                throw new java.io.IOException(path + " is not an event trace");
+            }
+            int version = header.getInt();
+            if (version != TraceFormat.VERSION
+                    || header.getInt() != TraceFormat.RECORD_BYTES) {
+                throw new java.io.IOException("Unsupported trace version "
+                        + version);
+            }
+            long records = Math.min(header.getLong(TraceFormat.COUNT_OFFSET),
+                    (size - TraceFormat.HEADER_BYTES) / TraceFormat.RECORD_BYTES);
+            long done = 0;
+            while (done < records) {
+                int count = (int) Math.min(records - done,
+                        TraceFormat.WINDOW_RECORDS);
+                java.nio.MappedByteBuffer window = channel.map(
+                        java.nio.channels.FileChannel.MapMode.READ_ONLY,
+                        TraceFormat.HEADER_BYTES + done * TraceFormat.RECORD_BYTES,
+                        (long) count * TraceFormat.RECORD_BYTES);
+                for (int i = 0; i < count; i++) {
+                    byte type = window.get();
+                    int airline = window.get();
+                    window.getShort();
+                    int clock = window.getInt();
+                    window.getInt();
+                    window.getInt();
+                    int wait = window.getInt();
+                    record(type, airline, clock, wait);
+                }
+                done += count;
+            }
+            endSeries();
+        }
+    }
+//******************************************************************************
+
+    //Method:       record
+    //Description:  This method adds one event to the totals, the wait
+    //              histogram and the depth series. An airline or wait out of
+    //              range, like an unknown type, means the trace is corrupt or
+    //              from a newer writer.
+    //Parameters:   byte type, int airline, int clock, int wait
+    //Returns:      nothing
+    //Calls:        advanceSeries()
+    //Globals:      none
+    void record(byte type, int airline, int clock, int wait)
+            throws java.io.IOException {
+        if (airline < 0 || airline >= airlineLandings.length) {
+            throw new java.io.IOException("Bad airline " + airline);
+        }
+        if (wait < 0) {
+            throw new java.io.IOException("Bad wait " + wait);
+        }
+        if (series != null) {
+            advanceSeries(clock);
+        }
+        switch (type) {
+            case TraceFormat.ARRIVAL:
+                arrivals++;
+                if (++depth > peakDepth) {
+                    peakDepth = depth;
+                    peakClock = clock;
+                }
+                break;
+            case TraceFormat.LANDING:
+                landings++;
+                depth--;
+                airlineLandings[airline]++;
+                totalWait += wait;
+                if (wait >= waitCounts.length) {
+                    waitCounts = java.util.Arrays.copyOf(waitCounts,
+                            Math.max(wait + 1, waitCounts.length * 2));
+                }
+                waitCounts[wait]++;
+                break;
+            case TraceFormat.CRASH:
+                crashes++;
+                depth--;
+                airlineCrashes[airline]++;
+                break;
+            case TraceFormat.HOLDING:
+                holdings++;
+                break;
+            case TraceFormat.DIVERSION:
+                diversions++;
+                depth--;
+                break;
+            case TraceFormat.EMERGENCY:
+                emergencies++;
+                break;
+            default:
+                throw new java.io.IOException("Bad record type " + type);
+        }
+        intervalMaxDepth = Math.max(intervalMaxDepth, depth);
+    }
+//******************************************************************************
+
+    //Method:       advanceSeries
+    //Description:  This method writes a CSV row (interval start, depth at the
+    //              end of the interval, highest depth in it) for each interval
+    //              that ends before the given minute.
+    //Parameters:   int clock
+    //Returns:      nothing
+    //Calls:        nothing
+    //Globals:      none
+    private void advanceSeries(int clock) throws java.io.IOException {
+        while (clock >= seriesMinute + interval) {
+            series.write(seriesMinute + "," + depth + "," + intervalMaxDepth
+                    + System.lineSeparator());
+            seriesMinute += interval;
+            intervalMaxDepth = depth;
+        }
+    }
+//******************************************************************************
+
+    private void endSeries() throws java.io.IOException {
+        if (series != null && arrivals > 0) {
+            series.write(seriesMinute + "," + depth + "," + intervalMaxDepth
+                    + System.lineSeparator());
+        }
+    }
+//******************************************************************************
+
+    //Method:       percentile
+    //Description:  This method returns the smallest wait that at least p
+    //              percent of landed planes did not exceed.
+    //Parameters:   double p
+    //Returns:      int (0 if nothing landed)
+    //Calls:        nothing
+    //Globals:      none
+    public int percentile(double p) {
+        long rank = (long) Math.ceil(p / 100.0 * landings);
+        long seen = 0;
+        for (int wait = 0; wait < waitCounts.length; wait++) {
+            seen += waitCounts[wait];
+            if (seen >= rank && seen > 0) {
+                return wait;
+            }
+        }
+        return 0;
+    }
+//******************************************************************************
+
+    //Method:       report
+    //Description:  This method formats the totals.
+    //Parameters:   none
+    //Returns:      String
+    //Calls:        percentile()
+    //Globals:      none
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        String newLine = System.lineSeparator();
+        report.append("Records:           ")
+                .append(arrivals + landings + crashes + holdings + diversions
+                        + emergencies)
+                .append(" (").append(arrivals).append(" arrivals, ")
+                .append(landings).append(" landings, ").append(crashes)
+                .append(" crashes, ").append(diversions).append(" diversions, ")
+                .append(emergencies).append(" emergencies, ").append(holdings)
+                .append(" holding)").append(newLine);
+        report.append("Mean wait:         ").append(String.format("%.3f",
+                (landings == 0) ? 0.0 : (double) totalWait / landings))
+                .append(" min(s)").append(newLine);
+        report.append("Wait percentiles: ");
+        for (double p : PERCENTILES) {
+            report.append(" p").append(p == (int) p ? String.valueOf((int) p)
+                    : String.valueOf(p)).append('=').append(percentile(p));
+        }
+        report.append(" max=").append(percentile(100)).append(newLine);
+        report.append("Peak queue depth:  ").append(peakDepth)
+                .append(" at minute ").append(peakClock).append(newLine);
+        report.append(String.format("%-12s %12s %12s%n", "Airline",
+                "Landings", "Crashes"));
+        for (int i = 0; i < Airplane.AIRLINES.length; i++) {
+            report.append(String.format("%-12s %12d %12d%n",
+                    Airplane.AIRLINES[i], airlineLandings[i], airlineCrashes[i]));
+        }
+        return report.toString();
+    }
+}
+//******************************************************************************
+//******************************************************************************
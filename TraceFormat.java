@@ -0,0 +1,42 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        TraceFormat
+//Description:  This class describes the binary event trace written by
+//              TraceWriter and read by TraceAnalyzer. A trace is a 24-byte
+//              header followed by fixed-width 20-byte records, all big-endian:
+//                  header  int magic ("ATRC"), int version, int record size,
+//                          int reserved, long records written
+//                  record  byte type (0 arrival, 1 landing, 2 crash,
+//                          3 holding, a plane shown by the S command,
+//                          4 diversion, 5 fuel emergency),
+//                          byte airline (index into Airplane.AIRLINES),
+//                          short reserved, int clock, int flight number,
+//                          int fuel left (0 for crashes),
+//                          int wait (0 for arrivals)
+//              Fixed-width records let a reader find record n by arithmetic
+//              and stream a trace of any size through mapped windows. The
+//              record count is kept up to date as records are written, so a
+//              trace left behind by a program that never closed it can still
+//              be read: the file may be longer than the records, and the
+//              count says where they end.
+final class TraceFormat {
+
+    static final int MAGIC = 0x41545243;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 24;
+    static final int COUNT_OFFSET = 16;
+    static final int RECORD_BYTES = 20;
+    static final byte ARRIVAL = 0;
+    static final byte LANDING = 1;
+    static final byte CRASH = 2;
+    static final byte HOLDING = 3;
+    static final byte DIVERSION = 4;
+    static final byte EMERGENCY = 5;
+    static final int WINDOW_RECORDS = 1 << 22;
+//******************************************************************************
+
+    private TraceFormat() {
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,138 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        TraceWriter
+//Description:  This class is an EventSink that writes every event to a binary
+//              trace file (see TraceFormat). The file is written through a
+//              memory-mapped window of the FileChannel; when a window fills,
+//              the next one is mapped. Each event is a handful of puts into
+//              the mapped buffer and allocates nothing. The header is mapped
+//              on its own and its record count is updated with every record,
+//              so if the program ends without close (mapped pages are still
+//              written back by the operating system) the trace is readable
+//              up to the last event. The file is not cut back to the records
+//              on close: truncating a file that still has live mappings fails
+//              on some platforms, and a mapping is only released when the
+//              buffer is collected. The last window's unwritten tail stays in
+//              the file (sparse where the file system allows) and readers
+//              stop at the header's count.
+public class TraceWriter implements EventSink {
+
+    private static final long WINDOW_BYTES =
+            (long) TraceFormat.WINDOW_RECORDS * TraceFormat.RECORD_BYTES;
+
+    private final java.nio.channels.FileChannel channel;
+    private final java.nio.MappedByteBuffer header;
+    private java.nio.MappedByteBuffer window;
+    private long records;
+//******************************************************************************
+
+    public TraceWriter(java.nio.file.Path path) throws java.io.IOException {
+        channel = java.nio.channels.FileChannel.open(path,
+                java.nio.file.StandardOpenOption.CREATE,
+                java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                java.nio.file.StandardOpenOption.READ,
+                java.nio.file.StandardOpenOption.WRITE);
+        header = channel.map(java.nio.channels.FileChannel.MapMode.READ_WRITE,
+                0, TraceFormat.HEADER_BYTES);
+        header.putInt(TraceFormat.MAGIC).putInt(TraceFormat.VERSION)
+                .putInt(TraceFormat.RECORD_BYTES).putInt(0).putLong(0);
+        nextWindow();
+    }
+//******************************************************************************
+
+    @Override
+    public void onArrival(int clock, int airline, int flightNum, int fuelLeft) {
+        write(TraceFormat.ARRIVAL, airline, clock, flightNum, fuelLeft, 0);
+    }
+//******************************************************************************
+
+    @Override
+    public void onLanding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        write(TraceFormat.LANDING, airline, clock, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onCrash(int clock, int airline, int flightNum, int wait) {
+        write(TraceFormat.CRASH, airline, clock, flightNum, 0, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onHolding(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        write(TraceFormat.HOLDING, airline, clock, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onDiversion(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        write(TraceFormat.DIVERSION, airline, clock, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    @Override
+    public void onEmergency(int clock, int airline, int flightNum, int fuelLeft,
+            int wait) {
+        write(TraceFormat.EMERGENCY, airline, clock, flightNum, fuelLeft, wait);
+    }
+//******************************************************************************
+
+    public long records() {
+        return records;
+    }
+//******************************************************************************
+
+    //Method:       close
+    //Description:  This method flushes the records, then the header with
+    //              their count, and closes the channel.
+    //Parameters:   none
+    //Returns:      nothing
+    //Calls:        force()
+    //Globals:      none
+    @Override
+    public void close() {
+        try {
+            window.force();
+            header.force();
+            channel.close();
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+//******************************************************************************
+
+    //Method:       write
+    //Description:  This method appends one record, mapping the next window of
+    //              the file first if the current one is full, and then counts
+    //              it in the header.
+    //Parameters:   byte type, int airline, clock, flightNum, fuelLeft, wait
+    //Returns:      nothing
+    //Calls:        nextWindow()
+    //Globals:      none
+    private void write(byte type, int airline, int clock, int flightNum,
+            int fuelLeft, int wait) {
+        if (window.remaining() < TraceFormat.RECORD_BYTES) {
+            nextWindow();
+        }
+        window.put(type).put((byte) airline).putShort((short) 0)
+                .putInt(clock).putInt(flightNum).putInt(fuelLeft).putInt(wait);
+        header.putLong(TraceFormat.COUNT_OFFSET, ++records);
+    }
+//******************************************************************************
+
+    private void nextWindow() {
+        try {
+            window = channel.map(
+                    java.nio.channels.FileChannel.MapMode.READ_WRITE,
+                    TraceFormat.HEADER_BYTES
+                    + records * TraceFormat.RECORD_BYTES, WINDOW_BYTES);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+}
+//******************************************************************************
+//******************************************************************************
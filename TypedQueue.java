@@ -0,0 +1,26 @@
+//******************************************************************************
+//******************************************************************************
+//Interface:    TypedQueue
+//Description:  The generic counterpart of QueueInterface: the removal and
+//              inspection half of a priority queue, typed by its entries so
+//              callers need no casts. How entries are inserted (and so how
+//              they are ordered) is left to the subinterfaces. Iteration is
+//              read-only and in dequeue order.
+public interface TypedQueue<T> extends Iterable<T> {
+    public T dequeue();
+    public T getFront();
+    public boolean isEmpty();
+    public void clear();
+    public int size();
+//******************************************************************************
+
+    //Method:       stream
+    //Description:  A read-only stream of the entries in dequeue order.
+    default java.util.stream.Stream<T> stream() {
+        return java.util.stream.StreamSupport.stream(
+                java.util.Spliterators.spliterator(iterator(), size(),
+                        java.util.Spliterator.ORDERED), false);
+    }
+}
+//******************************************************************************
+//******************************************************************************
@@ -0,0 +1,122 @@
+//******************************************************************************
+//******************************************************************************
+//Class:        WaitHistogram
+//Description:  This class is a log-linear histogram of non-negative ints.
+//              Values below 32 get a bucket each. Above that, every power of
+//              two is split into 16 equal buckets, so a value is known to
+//              within about 6% and 448 buckets cover every int. Recording is
+//              an index calculation and one increment, with no allocation.
+//              Percentiles report the highest value in the chosen bucket.
+public class WaitHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (32 - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private int max;
+//******************************************************************************
+
+    //Method:       record
+    //Description:  This method counts one value (negative values count as 0).
+    //Parameters:   int value
+    //Returns:      nothing
+    //Calls:        index()
+    //Globals:      none
+    public void record(int value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[index(value)]++;
+        count++;
+        total += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+//******************************************************************************
+
+    public long count() {
+        return count;
+    }
+//******************************************************************************
+
+    public int max() {
+        return max;
+    }
+//******************************************************************************
+
+    public double mean() {
+        return (count == 0) ? 0.0 : (double) total / count;
+    }
+//******************************************************************************
+
+    //Method:       percentile
+    //Description:  This method returns the value at or below which p percent
+    //              of the recorded values fall.
+    //Parameters:   double p (0 to 100)
+    //Returns:      int (0 if nothing has been recorded)
+    //Calls:        highestInBucket()
+    //Globals:      none
+    public int percentile(double p) {
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), max);
+            }
+        }
+        return 0;
+    }
+//******************************************************************************
+
+    //Method:       merge
+    //Description:  This method adds another histogram's counts into this one,
+    //              as if its values had been recorded here.
+    //Parameters:   WaitHistogram other
+    //Returns:      nothing
+    //Calls:        nothing
+    //Globals:      none
+    public void merge(WaitHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+//******************************************************************************
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+//******************************************************************************
+
+    static int index(int value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return value;
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int sub = (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+//******************************************************************************
+
+    static int highestInBucket(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long highest = ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        return (int) Math.min(highest, Integer.MAX_VALUE);
+    }
+}
+//******************************************************************************
+//******************************************************************************